@@ -0,0 +1,82 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures formatting throughput and latency percentiles for each {@link FormatterFacade}, across source shapes.
+ * The {@code jmh} task enables the gc profiler, which reports the allocation rate and bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(
+        value = 1,
+        // Required by DirectFormatterFacade, see BootstrappingFormatterFacade.REQUIRED_EXPORTS
+        jvmArgsAppend = {
+            "--add-exports=jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED",
+            "--add-exports=jdk.compiler/com.sun.tools.javac.file=ALL-UNNAMED",
+            "--add-exports=jdk.compiler/com.sun.tools.javac.parser=ALL-UNNAMED",
+            "--add-exports=jdk.compiler/com.sun.tools.javac.tree=ALL-UNNAMED",
+            "--add-exports=jdk.compiler/com.sun.tools.javac.util=ALL-UNNAMED"
+        })
+public class FormatterFacadeBenchmark {
+
+    @Param({"DIRECT", "BOOTSTRAPPING"})
+    public FacadeType facade;
+
+    @Param({"SMALL", "MEDIUM", "HUGE", "JAVADOC_HEAVY"})
+    public SourceShape shape;
+
+    private FormatterFacade formatter;
+    private String className;
+    private String source;
+
+    @Setup
+    public void setup() {
+        formatter = facade.create();
+        className = shape.className();
+        source = shape.javaFile().toString();
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.formatSource(className, source);
+    }
+
+    /** Formats from several threads at once, sharing a single facade as {@link Goethe} does. */
+    @Benchmark
+    @Threads(4)
+    public String formatConcurrently() {
+        return formatter.formatSource(className, source);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.palantir.javapoet.JavaFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead {@link GoetheFormatter} adds around formatting, which is replaced by a stub returning the
+ * rendered source, so that rendering and emitting files aren't hidden by the formatter's own allocations. The
+ * {@code gc.alloc.rate.norm} reported by the gc profiler, which the {@code jmh} task enables, is the bytes allocated
+ * per file. Rendering into a new {@link StringBuilder} is measured as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class RenderAllocationBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public SourceShape shape;
+
+    private JavaFile javaFile;
+    private GoetheFormatter formatter;
+    private Path outputDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        javaFile = shape.javaFile();
+        String rendered = javaFile.toString();
+        formatter = new GoetheFormatter(
+                GoetheFormatter.builder().splitMinChars(Long.MAX_VALUE), (className, unformattedSource) -> rendered);
+        outputDirectory = Files.createTempDirectory("goethe-render-benchmark");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(outputDirectory)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public StringBuilder render() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        javaFile.writeTo(builder);
+        return builder;
+    }
+
+    @Benchmark
+    public String formatAsString() {
+        return formatter.formatAsString(javaFile);
+    }
+
+    /** Emits an unchanged file, as most files are when an incremental build regenerates sources. */
+    @Benchmark
+    public EmitResult formatAndEmitIfChanged() {
+        return formatter.formatAndEmitIfChanged(javaFile, outputDirectory);
+    }
+}
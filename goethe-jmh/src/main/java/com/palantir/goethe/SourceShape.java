@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.FieldSpec;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.ParameterizedTypeName;
+import com.palantir.javapoet.TypeSpec;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.Modifier;
+
+/** Synthetic types resembling the output of code generators, from trivial to very large. */
+public enum SourceShape {
+    SMALL(5, false),
+    MEDIUM(100, false),
+    HUGE(2_000, false),
+    JAVADOC_HEAVY(100, true);
+
+    private static final String PACKAGE = "com.palantir.goethe.generated";
+    private static final String JAVADOC = "Returns the value of this property, which was produced by a code generator"
+            + " from a definition which is not visible here. Generated javadoc is often long, unwrapped, and contains"
+            + " {@code inline code}, <em>markup</em>, and references to {@link java.util.Map} which the formatter must"
+            + " reflow onto multiple lines without breaking.\n";
+
+    private final int members;
+    private final boolean javadoc;
+
+    SourceShape(int members, boolean javadoc) {
+        this.members = members;
+        this.javadoc = javadoc;
+    }
+
+    String className() {
+        return PACKAGE + '.' + typeName();
+    }
+
+    JavaFile javaFile() {
+        ClassName self = ClassName.get(PACKAGE, typeName());
+        ParameterizedTypeName mapType = ParameterizedTypeName.get(Map.class, String.class, Object.class);
+        TypeSpec.Builder type = TypeSpec.classBuilder(self).addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        if (javadoc) {
+            type.addJavadoc(JAVADOC);
+        }
+        for (int i = 0; i < members; i++) {
+            String field = "property" + i;
+            type.addField(FieldSpec.builder(String.class, field, Modifier.PRIVATE, Modifier.FINAL)
+                    .initializer("$S", "value" + i)
+                    .build());
+            MethodSpec.Builder method = MethodSpec.methodBuilder("get" + i)
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(mapType, "overrides")
+                    .returns(ParameterizedTypeName.get(List.class, String.class))
+                    .addStatement(
+                            "return $T.of(overrides.getOrDefault($S, $N).toString(), $N.toUpperCase(), $N.trim(),"
+                                    + " $T.valueOf(overrides.size()))",
+                            List.class,
+                            field,
+                            field,
+                            field,
+                            field,
+                            String.class);
+            if (javadoc) {
+                method.addJavadoc(JAVADOC)
+                        .addJavadoc("@param overrides " + JAVADOC)
+                        .addJavadoc("@return " + JAVADOC);
+            }
+            type.addMethod(method.build());
+        }
+        return JavaFile.builder(PACKAGE, type.build()).build();
+    }
+
+    private String typeName() {
+        return "Generated" + name();
+    }
+}
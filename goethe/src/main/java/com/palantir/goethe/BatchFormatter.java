@@ -0,0 +1,146 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/** Formats many files concurrently on behalf of {@link Goethe#formatAll(Collection)}. */
+final class BatchFormatter {
+
+    private BatchFormatter() {}
+
+    /**
+     * Formats each file using the given executor, returning results in input order. Failures are captured in the
+     * corresponding {@link FormatResult} rather than discarding the rest of the batch.
+     */
+    static <T> List<FormatResult> formatAll(
+            Collection<T> files,
+            Function<T, String> classNameFunction,
+            Function<T, String> formatFunction,
+            Executor executor) {
+        List<CompletableFuture<FormatResult>> futures = new ArrayList<>(files.size());
+        for (T file : files) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> format(file, classNameFunction, formatFunction), executor));
+        }
+        List<FormatResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<FormatResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                futures.forEach(pending -> pending.cancel(false));
+                Thread.currentThread().interrupt();
+                throw new GoetheException("Interrupted while formatting files", e);
+            } catch (ExecutionException e) {
+                // Failures are captured in results, this is only reachable if the executor itself fails
+                throw new GoetheException("Failed to format files", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private static <T> FormatResult format(
+            T file, Function<T, String> classNameFunction, Function<T, String> formatFunction) {
+        String className = classNameFunction.apply(file);
+        try {
+            return FormatResult.success(className, formatFunction.apply(file));
+        } catch (GoetheException e) {
+            return FormatResult.failure(className, e);
+        } catch (RuntimeException e) {
+            return FormatResult.failure(className, new GoetheException("Failed to format '" + className + "'", e));
+        }
+    }
+
+    /** Shared executor used when callers don't provide one, threads are created lazily and never block shutdown. */
+    static Executor defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Executor for {@link Goethe#formatAsync(com.palantir.javapoet.JavaFile) asynchronous} calls. Uses a virtual
+     * thread per task when running on jdk 21 or later, so in-flight files don't each hold a platform thread, and
+     * falls back to the {@link #defaultExecutor() default executor} otherwise.
+     */
+    static Executor asyncExecutor() {
+        return AsyncExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Executor for the chunks of {@link SplittingFormatterFacade split} sources. This is separate from the default
+     * executor because split sources are themselves often formatted by it, and wait for their chunks to complete.
+     */
+    static Executor memberExecutor() {
+        return MemberExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Executor for calls with a {@link DeadlineFormatterFacade deadline}, whose callers wait for at most the deadline.
+     * Threads are created on demand because abandoned in-process calls keep running until they complete.
+     */
+    static Executor deadlineExecutor() {
+        return DeadlineExecutorHolder.EXECUTOR;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("goethe-formatter-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    private static final class MemberExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("goethe-member-formatter-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    private static final class DeadlineExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("goethe-deadline-formatter-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    private static final class AsyncExecutorHolder {
+        private static final Executor EXECUTOR = createAsyncExecutor();
+
+        private static Executor createAsyncExecutor() {
+            try {
+                // Goethe targets jdk 17, so the virtual thread api must be resolved reflectively
+                return (Executor) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return defaultExecutor();
+            }
+        }
+    }
+}
@@ -17,16 +17,15 @@
 package com.palantir.goethe;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.ByteStreams;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Optional;
 
-/** A {@link FormatterFacade} implementation which spawns new java processes with {@link #EXPORTS} applied. */
+/**
+ * A {@link FormatterFacade} implementation which delegates to a bounded {@link FormatterWorkerPool pool} of
+ * {@link FormatterWorker} java processes with {@link #EXPORTS} applied. Workers are started lazily, reused for the
+ * life of this facade, and replaced if they die.
+ */
 final class BootstrappingFormatterFacade implements FormatterFacade {
 
     static final ImmutableList<String> REQUIRED_EXPORTS = ImmutableList.of(
@@ -40,68 +39,29 @@ final class BootstrappingFormatterFacade implements FormatterFacade {
             .map(value -> String.format("--add-exports=%s=ALL-UNNAMED", value))
             .collect(ImmutableList.toImmutableList());
 
-    @Override
-    public String formatSource(String className, String unformattedSource) throws GoetheException {
-        try {
-            Process process = new ProcessBuilder(ImmutableList.<String>builder()
-                            .add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath())
-                            .addAll(EXPORTS)
-                            .add( // Classpath
-                                    "-cp",
-                                    getClasspath(),
-                                    // Main class
-                                    GoetheMain.class.getName(),
-                                    // Args
-                                    className)
-                            .build())
-                    .start();
-            try (OutputStream outputStream = process.getOutputStream()) {
-                outputStream.write(unformattedSource.getBytes(StandardCharsets.UTF_8));
-            }
-            byte[] data;
-            try (InputStream inputStream = process.getInputStream()) {
-                data = ByteStreams.toByteArray(inputStream);
-            }
-            int exitStatus = process.waitFor();
-            if (exitStatus != 0) {
-                throw new GoetheException(String.format(
-                        "Formatter exited non-zero (%d) formatting class %s:\n%s",
-                        exitStatus, className, getErrorOutput(process)));
-            }
-            return new String(data, StandardCharsets.UTF_8);
-        } catch (IOException | InterruptedException e) {
-            throw new GoetheException("Failed to bootstrap jdk", e);
-        }
+    private final FormatterWorkerPool pool;
+
+    BootstrappingFormatterFacade() {
+        this(FormatterWorkerPool.fromSystemProperties());
     }
 
-    private static String getErrorOutput(Process process) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (InputStream inputStream = process.getErrorStream()) {
-            inputStream.transferTo(baos);
-        } catch (IOException | RuntimeException e) {
-            String diagnostic = "<failed to read process stream: " + e + ">";
-            try {
-                baos.write(diagnostic.getBytes(StandardCharsets.UTF_8));
-            } catch (IOException ignored) {
-                // should not happen
-            }
-        }
-        return baos.toString(StandardCharsets.UTF_8);
+    BootstrappingFormatterFacade(
+            FormatterOptions options, WorkerJvmOptions jvmOptions, Optional<Duration> requestTimeout) {
+        this(FormatterWorkerPool.fromSystemProperties(options, jvmOptions, requestTimeout));
     }
 
-    private static String getClasspath() {
-        return getPath(Goethe.class);
+    BootstrappingFormatterFacade(FormatterWorkerPool pool) {
+        this.pool = pool;
     }
 
-    private static String getPath(Class<?> clazz) {
-        try {
-            return new File(clazz.getProtectionDomain()
-                            .getCodeSource()
-                            .getLocation()
-                            .toURI())
-                    .getAbsolutePath();
-        } catch (URISyntaxException e) {
-            throw new GoetheException("Failed to locate the jar providing " + clazz, e);
-        }
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        return pool.format(className, unformattedSource);
+    }
+
+    /** Formatted output is decoded from the worker directly into {@code output}. */
+    @Override
+    public void formatSource(String className, CharSequence unformattedSource, Writer output) throws GoetheException {
+        pool.format(className, unformattedSource, output);
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A {@link FormatterFacade} which caches formatted output in memory, keyed by a SHA-256 hash of the formatter
+ * options and the unformatted source. Entries are weighed by their approximate size in bytes and the least recently
+ * used entries are evicted once {@code maxBytes} is exceeded. Concurrent requests for the same source wait for a
+ * single format rather than duplicating work. Failures are not cached.
+ */
+final class CachingFormatterFacade implements FormatterFacade {
+
+    static final String MAX_BYTES_PROPERTY = "goethe.cache.maxBytes";
+
+    // Rough per-entry overhead of the key, the cache entry, and the string header
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final FormatterFacade delegate;
+    private final String formatterOptions;
+    private final Cache<HashCode, String> cache;
+
+    CachingFormatterFacade(FormatterFacade delegate, String formatterOptions, long maxBytes) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+        this.delegate = delegate;
+        this.formatterOptions = formatterOptions;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((HashCode key, String value) -> weigh(value))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        HashCode key = Hashing.sha256()
+                .newHasher()
+                .putString(formatterOptions, StandardCharsets.UTF_8)
+                .putString(unformattedSource, StandardCharsets.UTF_8)
+                .hash();
+        try {
+            return cache.get(key, () -> delegate.formatSource(className, unformattedSource));
+        } catch (UncheckedExecutionException | ExecutionException e) {
+            if (e.getCause() instanceof GoetheException) {
+                throw (GoetheException) e.getCause();
+            }
+            throw new GoetheException("Failed to format '" + className + "'", e.getCause());
+        }
+    }
+
+    @Override
+    public FormatCacheStats cacheStats() {
+        CacheStats stats = cache.stats();
+        return new FormatCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.size());
+    }
+
+    private static int weigh(String value) {
+        // Strings are at most two bytes per character, cap to avoid overflowing the weight
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + 2L * value.length());
+    }
+}
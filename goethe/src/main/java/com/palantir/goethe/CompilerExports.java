@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.palantir.javaformat.java.Formatter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import sun.misc.Unsafe;
+
+/**
+ * Exports the {@link BootstrappingFormatterFacade#REQUIRED_EXPORTS required} {@code jdk.compiler} packages to the
+ * formatter at runtime, which allows formatting in-process at direct speed when the jvm was started without the
+ * corresponding {@code --add-exports} flags, for example inside a Gradle daemon or javac process whose flags the user
+ * doesn't control.
+ *
+ * <p>{@link ModuleLayer.Controller#addExports} can't help here because it only applies to modules defined in the new
+ * layer, while {@code jdk.compiler} is in the boot layer. Instead, the package-private {@code Module.implAddExports}
+ * is invoked using {@link Unsafe} to bypass access checks, the same approach taken by Lombok. Exports only ever target
+ * the unnamed module which contains the formatter. This may be disabled by setting {@code goethe.inProcess} to
+ * {@code false}, in which case formatting falls back to child processes.
+ */
+final class CompilerExports {
+
+    static final String IN_PROCESS_PROPERTY = "goethe.inProcess";
+
+    private static final String MODULE_SEPARATOR = "/";
+
+    private CompilerExports() {}
+
+    /** Returns true if every required package is exported to the formatter. */
+    static boolean isExported() {
+        Module formatterModule = Formatter.class.getModule();
+        return BootstrappingFormatterFacade.REQUIRED_EXPORTS.stream().allMatch(moduleAndPackage -> {
+            Optional<Module> module = findModule(moduleAndPackage);
+            return module.isPresent() && module.get().isExported(packageName(moduleAndPackage), formatterModule);
+        });
+    }
+
+    /**
+     * Attempts to export every required package to the formatter, returning true if the formatter may be used
+     * in-process. Failures are not fatal, formatting falls back to child processes.
+     */
+    static boolean tryExport() {
+        if (isExported()) {
+            return true;
+        }
+        if (!Boolean.parseBoolean(System.getProperty(IN_PROCESS_PROPERTY, "true"))) {
+            return false;
+        }
+        try {
+            Method addExports = accessibleAddExports();
+            Module formatterModule = Formatter.class.getModule();
+            for (String moduleAndPackage : BootstrappingFormatterFacade.REQUIRED_EXPORTS) {
+                Optional<Module> module = findModule(moduleAndPackage);
+                if (module.isEmpty()) {
+                    return false;
+                }
+                addExports.invoke(module.get(), packageName(moduleAndPackage), formatterModule);
+            }
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // Unsupported runtime, for example one where sun.misc.Unsafe or Module internals have changed
+            return false;
+        }
+        return isExported();
+    }
+
+    private static Method accessibleAddExports() throws ReflectiveOperationException {
+        Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Unsafe unsafe = (Unsafe) theUnsafe.get(null);
+        Method addExports = Module.class.getDeclaredMethod("implAddExports", String.class, Module.class);
+        // AccessibleObject fields are hidden from reflection, a class with an identical layout provides the offset
+        long overrideOffset = unsafe.objectFieldOffset(AccessibleObjectLayout.class.getDeclaredField("override"));
+        unsafe.putBoolean(addExports, overrideOffset, true);
+        return addExports;
+    }
+
+    private static Optional<Module> findModule(String moduleAndPackage) {
+        String moduleName = moduleAndPackage.substring(0, moduleAndPackage.indexOf(MODULE_SEPARATOR));
+        return ModuleLayer.boot().findModule(moduleName);
+    }
+
+    private static String packageName(String moduleAndPackage) {
+        return moduleAndPackage.substring(moduleAndPackage.indexOf(MODULE_SEPARATOR) + 1);
+    }
+
+    /** Mirrors the instance fields of {@link java.lang.reflect.AccessibleObject}. */
+    @SuppressWarnings("unused")
+    private static final class AccessibleObjectLayout {
+        boolean override;
+        volatile Object accessCheckCache;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link FormatterFacade} which abandons calls exceeding {@code deadline}, failing with a
+ * {@link GoetheException#isDeadlineExceeded() deadline exceeded} exception which the
+ * {@link InstrumentedFormatterFacade} replaces with the unformatted source. Calls are made on {@code executor} so
+ * that the caller may stop waiting.
+ *
+ * <p>Child processes exceeding the deadline are killed by the {@link FormatterWorkerPool}. The formatter can't be
+ * interrupted, so an abandoned in-process call continues on the executor until it completes, but no longer delays
+ * the caller.
+ */
+final class DeadlineFormatterFacade implements FormatterFacade {
+
+    static final String DEADLINE_MILLIS_PROPERTY = "goethe.deadlineMillis";
+
+    private final FormatterFacade delegate;
+    private final Duration deadline;
+    private final Executor executor;
+
+    DeadlineFormatterFacade(FormatterFacade delegate, Duration deadline, Executor executor) {
+        Preconditions.checkArgument(
+                !deadline.isNegative() && !deadline.isZero(), "deadline must be positive: %s", deadline);
+        this.delegate = delegate;
+        this.deadline = deadline;
+        this.executor = executor;
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        // The source may be mutable, and is read on another thread
+        String source = unformattedSource.toString();
+        CompletableFuture<String> future =
+                CompletableFuture.supplyAsync(() -> delegate.formatSource(className, source), executor);
+        try {
+            return future.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw GoetheException.deadlineExceeded(className, deadline);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new GoetheException("Interrupted while formatting '" + className + "'", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GoetheException) {
+                throw (GoetheException) e.getCause();
+            }
+            throw new GoetheException("Failed to format '" + className + "'", e.getCause());
+        }
+    }
+
+    @Override
+    public FormatCacheStats cacheStats() {
+        return delegate.cacheStats();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+
+/**
+ * Formats {@link com.palantir.javapoet.JavaFile javapoet java files} in the background while an annotation processor
+ * continues generating, and writes them to a {@link Filer} when {@link #flush() flushed}, typically at the end of each
+ * processing round. Files are written in submission order with the same originating elements and failure cleanup as
+ * {@link Goethe#formatAndEmit(com.palantir.javapoet.JavaFile, Filer)}.
+ *
+ * <p>Like the filer it wraps, an emitter is not thread-safe and must only be used from the annotation processing
+ * thread.
+ *
+ * <pre>{@code
+ * DeferredFilerEmitter emitter = Goethe.deferredEmitter(processingEnv.getFiler());
+ * for (TypeElement element : annotatedElements) {
+ *     emitter.submit(generate(element));
+ * }
+ * emitter.flush();
+ * }</pre>
+ */
+public final class DeferredFilerEmitter implements AutoCloseable {
+
+    private final GoetheFormatter formatter;
+    private final Filer filer;
+    private final Executor executor;
+    private final List<PendingFile> pending = new ArrayList<>();
+
+    DeferredFilerEmitter(GoetheFormatter formatter, Filer filer, Executor executor) {
+        this.formatter = formatter;
+        this.filer = Preconditions.checkNotNull(filer, "filer");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+    }
+
+    /** Starts formatting {@code file} in the background, it is written to the filer by the next {@link #flush()}. */
+    public void submit(com.palantir.javapoet.JavaFile file) {
+        pending.add(new PendingFile(
+                GoetheFormatter.className(file),
+                file.typeSpec().originatingElements().toArray(new Element[0]),
+                CompletableFuture.supplyAsync(() -> formatter.formatAsString(file), executor)));
+    }
+
+    /** Starts formatting {@code file} in the background, it is written to the filer by the next {@link #flush()}. */
+    public void submit(com.squareup.javapoet.JavaFile file) {
+        pending.add(new PendingFile(
+                GoetheFormatter.className(file),
+                file.typeSpec.originatingElements.toArray(new Element[0]),
+                CompletableFuture.supplyAsync(() -> formatter.formatAsString(file), executor)));
+    }
+
+    /** Number of submitted files which have not been flushed. */
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Waits for submitted files to be formatted and writes them to the filer in submission order. A file which fails
+     * to format or write does not prevent the remaining files from being written.
+     *
+     * @throws GoetheException once all other files have been written, if any file failed to format or write. Further
+     *     failures are attached as suppressed exceptions.
+     */
+    public void flush() {
+        List<PendingFile> files = new ArrayList<>(pending);
+        pending.clear();
+        GoetheException failure = null;
+        for (int i = 0; i < files.size(); i++) {
+            PendingFile file = files.get(i);
+            try {
+                GoetheFormatter.emit(file.className, file.originatingElements, await(file), filer);
+            } catch (GoetheException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } catch (InterruptedException e) {
+                files.subList(i, files.size()).forEach(unwritten -> unwritten.formatted.cancel(false));
+                Thread.currentThread().interrupt();
+                GoetheException interrupted = new GoetheException("Interrupted while emitting formatted sources", e);
+                if (failure != null) {
+                    interrupted.addSuppressed(failure);
+                }
+                throw interrupted;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Flushes any pending files. */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private static String await(PendingFile file) throws InterruptedException {
+        try {
+            return file.formatted.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GoetheException) {
+                throw (GoetheException) e.getCause();
+            }
+            throw new GoetheException("Failed to format '" + file.className + "'", e.getCause());
+        }
+    }
+
+    private static final class PendingFile {
+        private final String className;
+        private final Element[] originatingElements;
+        private final CompletableFuture<String> formatted;
+
+        PendingFile(String className, Element[] originatingElements, CompletableFuture<String> formatted) {
+            this.className = className;
+            this.originatingElements = originatingElements;
+            this.formatted = formatted;
+        }
+    }
+}
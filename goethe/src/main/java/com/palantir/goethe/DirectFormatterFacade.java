@@ -16,30 +16,100 @@
 
 package com.palantir.goethe;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Splitter;
 import com.palantir.javaformat.java.Formatter;
 import com.palantir.javaformat.java.FormatterDiagnostic;
 import com.palantir.javaformat.java.FormatterException;
+import com.palantir.javaformat.java.ImportOrderer;
 import com.palantir.javaformat.java.JavaFormatterOptions;
+import com.palantir.javaformat.java.RemoveUnusedImports;
+import java.util.stream.Collectors;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Formats sources in the current jvm, which requires the {@link BootstrappingFormatterFacade#REQUIRED_EXPORTS}.
+ *
+ * <p>Safe for concurrent use without serializing callers: {@link Formatter} does not document thread-safety, so each
+ * call borrows an instance which no other call is using at the same time. Instances are cheap to create and are
+ * returned to a lock-free pool, which retains enough to serve the available processors without growing unbounded
+ * under bursts of concurrency such as virtual threads.
+ *
+ * <p>In {@link FormatterOptions#importsOnly() imports only} mode no {@link Formatter} is used: unused imports are
+ * removed, the remaining imports are ordered, and trailing whitespace is stripped, which is much cheaper than
+ * layout for generators whose output is already indented consistently.
+ */
 final class DirectFormatterFacade implements FormatterFacade {
 
-    private final Formatter formatter = Formatter.createFormatter(JavaFormatterOptions.builder()
-            .style(JavaFormatterOptions.Style.PALANTIR)
-            .formatJavadoc(true)
-            .build());
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n');
+
+    private static final int MAX_IDLE_FORMATTERS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final FormatterOptions options;
+    private final JavaFormatterOptions javaFormatterOptions;
+    private final Queue<Formatter> idleFormatters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleFormatterCount = new AtomicInteger();
+
+    DirectFormatterFacade() {
+        this(FormatterOptions.DEFAULT);
+    }
+
+    DirectFormatterFacade(FormatterOptions options) {
+        this.options = options;
+        this.javaFormatterOptions = options.javaFormatterOptions();
+    }
 
     @Override
-    public String formatSource(String className, String unformattedSource) throws GoetheException {
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        String source = unformattedSource.toString();
         try {
-            return formatter.formatSource(unformattedSource);
+            if (options.importsOnly()) {
+                return formatImports(source);
+            }
+            Formatter formatter = borrowFormatter();
+            try {
+                return formatter.formatSource(source);
+            } finally {
+                returnFormatter(formatter);
+            }
         } catch (FormatterException e) {
-            throw new GoetheException(generateMessage(className, unformattedSource, e.diagnostics()), e);
+            throw new GoetheException(generateMessage(className, source, e.diagnostics()), e);
         }
     }
 
+    private String formatImports(String source) throws FormatterException {
+        String imports = ImportOrderer.reorderImports(RemoveUnusedImports.removeUnusedImports(source), options.style());
+        // Trailing whitespace is insignificant, even within text blocks
+        return LINE_SPLITTER.splitToStream(imports).map(String::stripTrailing).collect(Collectors.joining("\n"));
+    }
+
+    private Formatter borrowFormatter() {
+        Formatter formatter = idleFormatters.poll();
+        if (formatter == null) {
+            return Formatter.createFormatter(javaFormatterOptions);
+        }
+        idleFormatterCount.decrementAndGet();
+        return formatter;
+    }
+
+    private void returnFormatter(Formatter formatter) {
+        // Reserve a slot before offering so that concurrent returns cannot exceed the limit
+        if (idleFormatterCount.incrementAndGet() <= MAX_IDLE_FORMATTERS) {
+            idleFormatters.offer(formatter);
+        } else {
+            idleFormatterCount.decrementAndGet();
+        }
+    }
+
+    @VisibleForTesting
+    int idleFormatters() {
+        return idleFormatterCount.get();
+    }
+
     /**
      * Attempt to provide as much actionable information as possible to understand why formatting is failing. This
      * is common when generated code is incorrect and cannot compile, so we mustn't make it difficult to understand
@@ -48,7 +118,7 @@ final class DirectFormatterFacade implements FormatterFacade {
     private static String generateMessage(
             String className, String unformattedSource, List<FormatterDiagnostic> formatterDiagnostics) {
         try {
-            List<String> lines = Splitter.on('\n').splitToList(unformattedSource);
+            List<String> lines = LINE_SPLITTER.splitToList(unformattedSource);
             StringBuilder failureText = new StringBuilder();
             failureText.append("Failed to format '").append(className).append("'\n");
             for (FormatterDiagnostic formatterDiagnostic : formatterDiagnostics) {
@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Formats every {@code .java} file under a set of source roots in place, on behalf of {@link GoetheMain}, for sources
+ * which are generated without javapoet. Files are formatted concurrently by a bounded number of threads and only
+ * rewritten, atomically, when formatting changed them.
+ */
+final class DirectoryFormatter {
+
+    private final FormatterFacade formatter;
+    private final int threads;
+
+    DirectoryFormatter(FormatterFacade formatter, int threads) {
+        Preconditions.checkArgument(threads > 0, "threads must be positive: %s", threads);
+        this.formatter = formatter;
+        this.threads = threads;
+    }
+
+    /** Formats every source under {@code roots}, collecting failures rather than stopping at the first. */
+    Summary format(List<Path> roots) throws IOException {
+        long startNanos = System.nanoTime();
+        List<SourceFile> files = new ArrayList<>();
+        for (Path root : roots) {
+            files.addAll(findSources(root));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+                threads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("goethe-directory-formatter-%d")
+                        .setDaemon(true)
+                        .build());
+        Summary summary = new Summary();
+        try {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (SourceFile file : files) {
+                futures.add(executor.submit(() -> format(file, summary)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoetheException("Interrupted while formatting source roots", e);
+        } catch (ExecutionException e) {
+            // Failures are captured in the summary, this is only reachable if the executor itself fails
+            throw new GoetheException("Failed to format source roots", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        summary.finish(System.nanoTime() - startNanos);
+        return summary;
+    }
+
+    private static List<SourceFile> findSources(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".java"))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .map(path -> new SourceFile(path, className(root, path)))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Derives the class name from the path relative to its root, which is only used to describe failures. */
+    private static String className(Path root, Path path) {
+        String relative = root.relativize(path).toString();
+        return relative.substring(0, relative.length() - ".java".length())
+                .replace(path.getFileSystem().getSeparator(), ".");
+    }
+
+    private void format(SourceFile file, Summary summary) {
+        try {
+            CharBuffer source = SourceFiles.read(file.path);
+            String formatted = formatter.formatSource(file.className, source);
+            boolean changed = !formatted.contentEquals(source);
+            if (changed) {
+                SourceFiles.writeAtomically(file.path, formatted);
+            }
+            summary.recordSuccess(source.length(), changed);
+        } catch (GoetheException e) {
+            summary.recordFailure(file.path + ": " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            summary.recordFailure(file.path + ": " + e);
+        }
+    }
+
+    private static final class SourceFile {
+        private final Path path;
+        private final String className;
+
+        private SourceFile(Path path, String className) {
+            this.path = path;
+            this.className = className;
+        }
+    }
+
+    /** Counts of the files which were formatted, and the failures which were encountered. */
+    static final class Summary {
+        private final List<String> failures = new ArrayList<>();
+        private long files;
+        private long changedFiles;
+        private long chars;
+        private long elapsedNanos;
+
+        private synchronized void recordSuccess(long sourceChars, boolean changed) {
+            files++;
+            chars += sourceChars;
+            if (changed) {
+                changedFiles++;
+            }
+        }
+
+        private synchronized void recordFailure(String failure) {
+            files++;
+            failures.add(failure);
+        }
+
+        private synchronized void finish(long nanos) {
+            elapsedNanos = nanos;
+        }
+
+        synchronized long files() {
+            return files;
+        }
+
+        synchronized long changedFiles() {
+            return changedFiles;
+        }
+
+        synchronized List<String> failures() {
+            return List.copyOf(failures);
+        }
+
+        @Override
+        public synchronized String toString() {
+            double seconds = Math.max(elapsedNanos, 1) / 1e9;
+            return String.format(
+                    Locale.ROOT,
+                    "Formatted %d files (%d changed, %d failed), %.1fM chars in %.2fs: %.0f files/s, %.1fM chars/s",
+                    files,
+                    changedFiles,
+                    failures.size(),
+                    chars / 1e6,
+                    seconds,
+                    files / seconds,
+                    chars / 1e6 / seconds);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.URISyntaxException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FormatterFacade} which persists formatted output to disk, allowing fresh JVMs to skip formatting sources
+ * they have seen before. Entries are keyed by a SHA-256 hash of the Goethe version, the formatter options, and the
+ * unformatted source, and are written atomically so that concurrent processes may share a cache directory.
+ *
+ * <p>A memory-mapped index records which keys are present, allowing misses to be detected without touching the
+ * filesystem, and tracks the total size of the cache. The index is a fixed-size open-addressing table updated with
+ * atomic compare-and-set operations, which are visible across processes sharing the mapping. The index is advisory:
+ * entries which have been evicted are detected when they are read, and keys which could not be indexed fall back to
+ * checking the filesystem. Once the cache grows beyond {@code maxBytes}, whichever process acquires the eviction lock
+ * removes the least recently used entries. Cache failures never fail formatting, the delegate is used instead.
+ */
+final class DiskCachingFormatterFacade implements FormatterFacade {
+
+    static final String DIRECTORY_PROPERTY = "goethe.cache.dir";
+    static final String MAX_BYTES_PROPERTY = "goethe.cache.dir.maxBytes";
+    static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    // Incremented when the on-disk layout changes incompatibly
+    private static final String LAYOUT_VERSION = "v1";
+    private static final String INDEX_FILE = "index";
+    private static final String LOCK_FILE = "lock";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Duration STALE_TEMP_FILE_AGE = Duration.ofHours(1);
+    // Entries are named by the hex encoded SHA-256 of their key
+    private static final int ENTRY_NAME_LENGTH = 64;
+
+    // The index header holds the total size of the cache in bytes, followed by one slot per key
+    private static final int TOTAL_BYTES_OFFSET = 0;
+    private static final int HEADER_BYTES = Long.BYTES;
+    private static final int INDEX_SLOTS = 1 << 16;
+    private static final int MAX_PROBES = 16;
+    private static final long EMPTY_SLOT = 0L;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FormatterFacade delegate;
+    private final String keyPrefix;
+    private final Path directory;
+    private final long maxBytes;
+    private final MappedByteBuffer index;
+
+    private DiskCachingFormatterFacade(
+            FormatterFacade delegate, String keyPrefix, Path directory, long maxBytes, MappedByteBuffer index) {
+        this.delegate = delegate;
+        this.keyPrefix = keyPrefix;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.index = index;
+    }
+
+    /**
+     * Opens, or creates, a cache rooted at {@code directory}.
+     *
+     * @throws IOException if the cache directory or index cannot be created
+     */
+    static DiskCachingFormatterFacade open(
+            FormatterFacade delegate, String formatterOptions, Path directory, long maxBytes) throws IOException {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+        Path versionedDirectory = directory.resolve(LAYOUT_VERSION);
+        Files.createDirectories(versionedDirectory);
+        MappedByteBuffer index;
+        try (FileChannel channel = FileChannel.open(
+                versionedDirectory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // New files are zero-filled, which is an empty index. The mapping remains valid after the channel closes.
+            index = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) INDEX_SLOTS * Long.BYTES);
+        }
+        return new DiskCachingFormatterFacade(
+                delegate, goetheVersion() + '\n' + formatterOptions + '\n', versionedDirectory, maxBytes, index);
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        HashCode key = Hashing.sha256()
+                .newHasher()
+                .putString(keyPrefix, StandardCharsets.UTF_8)
+                .putString(unformattedSource, StandardCharsets.UTF_8)
+                .hash();
+        long indexKey = indexKey(key);
+        Path entry = entryPath(key);
+        if (!definitelyAbsent(indexKey)) {
+            Optional<String> cached = read(entry);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        String formatted = delegate.formatSource(className, unformattedSource);
+        write(entry, indexKey, formatted);
+        return formatted;
+    }
+
+    private Path entryPath(HashCode key) {
+        String name = key.toString();
+        return directory.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private static Optional<String> read(Path entry) {
+        try {
+            String cached = Files.readString(entry, StandardCharsets.UTF_8);
+            // Eviction removes the least recently used entries, so hits must be recorded
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            return Optional.of(cached);
+        } catch (IOException | RuntimeException e) {
+            // Evicted or unreadable entries are treated as misses, and replaced
+            return Optional.empty();
+        }
+    }
+
+    private void write(Path entry, long indexKey, String formatted) {
+        byte[] bytes = formatted.getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.createDirectories(entry.getParent());
+            // Concurrent writers produce identical content, so whichever rename lands last is equally correct
+            Path temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), TEMP_SUFFIX);
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The cache is best-effort
+            return;
+        }
+        if (insert(indexKey)) {
+            long totalBytes = (long) LONGS.getAndAdd(index, TOTAL_BYTES_OFFSET, (long) bytes.length) + bytes.length;
+            if (totalBytes > maxBytes) {
+                evict();
+            }
+        }
+    }
+
+    /** Returns {@code true} only when the index proves that {@code indexKey} has never been written. */
+    private boolean definitelyAbsent(long indexKey) {
+        int slot = (int) (indexKey & (INDEX_SLOTS - 1));
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long value = (long) LONGS.getVolatile(index, slotOffset((slot + probe) & (INDEX_SLOTS - 1)));
+            if (value == indexKey) {
+                return false;
+            }
+            if (value == EMPTY_SLOT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Records {@code indexKey} in the index, returning {@code false} if it was already present. */
+    private boolean insert(long indexKey) {
+        int slot = (int) (indexKey & (INDEX_SLOTS - 1));
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int offset = slotOffset((slot + probe) & (INDEX_SLOTS - 1));
+            long value = (long) LONGS.getVolatile(index, offset);
+            if (value == indexKey) {
+                return false;
+            }
+            if (value == EMPTY_SLOT) {
+                if (LONGS.compareAndSet(index, offset, EMPTY_SLOT, indexKey)) {
+                    return true;
+                }
+                if ((long) LONGS.getVolatile(index, offset) == indexKey) {
+                    return false;
+                }
+            }
+        }
+        // The neighbourhood is full, lookups for this key fall back to the filesystem. The entry is still counted
+        // toward the total size so that eviction eventually runs.
+        return true;
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is comfortably below {@code maxBytes}. Only one
+     * process evicts at a time, others continue without waiting.
+     */
+    private void evict() {
+        try (FileChannel lockChannel = FileChannel.open(
+                        directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = lockChannel.tryLock()) {
+            if (lock == null) {
+                return;
+            }
+            List<CacheEntry> entries = listEntries();
+            entries.sort(Comparator.comparing(CacheEntry::lastModified));
+            long remainingBytes = entries.stream().mapToLong(CacheEntry::size).sum();
+            long targetBytes = maxBytes - maxBytes / 4;
+            int evicted = 0;
+            while (evicted < entries.size() && remainingBytes > targetBytes) {
+                CacheEntry entry = entries.get(evicted++);
+                Files.deleteIfExists(entry.path());
+                remainingBytes -= entry.size();
+            }
+            // Rebuild the index from the surviving entries so that it doesn't fill with evicted keys. Concurrent
+            // lookups may briefly miss, which only costs a redundant format.
+            for (int slot = 0; slot < INDEX_SLOTS; slot++) {
+                LONGS.setVolatile(index, slotOffset(slot), EMPTY_SLOT);
+            }
+            for (CacheEntry entry : entries.subList(evicted, entries.size())) {
+                insert(indexKey(HashCode.fromString(entry.path().getFileName().toString())));
+            }
+            LONGS.setVolatile(index, TOTAL_BYTES_OFFSET, remainingBytes);
+        } catch (IOException | OverlappingFileLockException e) {
+            // Another thread in this process is already evicting, or eviction failed and will be retried on the
+            // next write.
+        }
+    }
+
+    private List<CacheEntry> listEntries() throws IOException {
+        List<CacheEntry> entries = new ArrayList<>();
+        Instant staleTempFileCutoff = Instant.now().minus(STALE_TEMP_FILE_AGE);
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getParent().equals(directory)) {
+                    // Only entries live in subdirectories, the index and lock file must be retained
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                String name = path.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // Left behind by processes which died mid-write
+                    if (attributes.lastModifiedTime().toInstant().isBefore(staleTempFileCutoff)) {
+                        Files.deleteIfExists(path);
+                    }
+                    continue;
+                }
+                if (name.length() != ENTRY_NAME_LENGTH) {
+                    continue;
+                }
+                entries.add(new CacheEntry(path, attributes.size(), attributes.lastModifiedTime()));
+            }
+        }
+        return entries;
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * Long.BYTES;
+    }
+
+    /** The empty slot marker is never used as a key. */
+    private static long indexKey(HashCode key) {
+        long value = key.asLong();
+        return value == EMPTY_SLOT ? 1L : value;
+    }
+
+    /**
+     * Entries written by one version of Goethe must not be read by another, which may format differently.
+     * Development builds have no version, so the identity of the jar is used instead.
+     */
+    private static String goetheVersion() {
+        String version = Goethe.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try {
+            Path location = Paths.get(
+                    Goethe.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            BasicFileAttributes attributes = Files.readAttributes(location, BasicFileAttributes.class);
+            return "unversioned-" + attributes.size() + '-' + attributes.lastModifiedTime().toMillis();
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return "unversioned";
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Path path;
+        private final long size;
+        private final FileTime lastModified;
+
+        CacheEntry(Path path, long size, FileTime lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        long size() {
+            return size;
+        }
+
+        FileTime lastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight recorder event covering the write of a formatted source file to a {@code Filer} or directory. */
+@Name("com.palantir.goethe.Emit")
+@Label("Emit Source")
+@Category("Goethe")
+@Description("Writing a formatted source file, excluding the time spent formatting it")
+final class EmitJfrEvent extends jdk.jfr.Event {
+
+    @Label("Class Name")
+    String className;
+
+    @Label("Destination")
+    String destination;
+
+    @Label("Characters")
+    long chars;
+
+    @Label("Written")
+    @Description("False if the file was unchanged, or if writing failed")
+    boolean written;
+
+    static EmitJfrEvent start() {
+        EmitJfrEvent event = new EmitJfrEvent();
+        event.begin();
+        return event;
+    }
+
+    void finish(String emittedClassName, Object emittedDestination, long emittedChars, boolean wasWritten) {
+        end();
+        if (shouldCommit()) {
+            this.className = emittedClassName;
+            this.destination = String.valueOf(emittedDestination);
+            this.chars = emittedChars;
+            this.written = wasWritten;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of emitting a formatted file to a directory, see
+ * {@link Goethe#formatAndEmitIfChanged(com.palantir.javapoet.JavaFile, Path)}.
+ */
+public final class EmitResult {
+
+    private final Path path;
+    private final boolean written;
+
+    EmitResult(Path path, boolean written) {
+        this.path = path;
+        this.written = written;
+    }
+
+    /** Location of the emitted file. */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Returns {@code true} if the file was written, or {@code false} if it already existed with identical content
+     * and was left untouched.
+     */
+    public boolean isWritten() {
+        return written;
+    }
+
+    @Override
+    public String toString() {
+        return "EmitResult{path=" + path + ", written=" + written + '}';
+    }
+}
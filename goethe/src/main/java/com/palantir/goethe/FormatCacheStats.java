@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+/** Point-in-time statistics describing the effectiveness of the formatted output cache. */
+public final class FormatCacheStats {
+
+    static final FormatCacheStats EMPTY = new FormatCacheStats(0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long entryCount;
+
+    FormatCacheStats(long hitCount, long missCount, long evictionCount, long entryCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+    }
+
+    /** Number of requests which were served from the cache, including those which waited for a concurrent format. */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /** Number of requests which required the source to be formatted. */
+    public long missCount() {
+        return missCount;
+    }
+
+    /** Number of entries which were evicted to remain within the configured size. */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /** Approximate number of entries currently cached. */
+    public long entryCount() {
+        return entryCount;
+    }
+
+    /** Ratio of requests which were served from the cache, or {@code 1.0} if no requests have been made. */
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "FormatCacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount="
+                + evictionCount + ", entryCount=" + entryCount + '}';
+    }
+}
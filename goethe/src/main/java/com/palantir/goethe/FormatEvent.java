@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/** Describes a single format call, see {@link FormatListener}. */
+public final class FormatEvent {
+
+    /** Whether the source was formatted successfully. */
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        /** Formatting took longer than the configured deadline, and the unformatted source was used instead. */
+        DEADLINE_EXCEEDED
+    }
+
+    private static final long UNKNOWN = -1;
+
+    private final String className;
+    private final String facade;
+    private final long inputChars;
+    private final long outputChars;
+    private final long wallTimeNanos;
+    private final Outcome outcome;
+    private final long childCpuTimeNanos;
+    private final long childPeakRssBytes;
+
+    FormatEvent(
+            String className,
+            String facade,
+            long inputChars,
+            long outputChars,
+            long wallTimeNanos,
+            Outcome outcome,
+            long childCpuTimeNanos,
+            long childPeakRssBytes) {
+        this.className = className;
+        this.facade = facade;
+        this.inputChars = inputChars;
+        this.outputChars = outputChars;
+        this.wallTimeNanos = wallTimeNanos;
+        this.outcome = outcome;
+        this.childCpuTimeNanos = childCpuTimeNanos;
+        this.childPeakRssBytes = childPeakRssBytes;
+    }
+
+    /** Fully qualified name of the type which was formatted. */
+    public String className() {
+        return className;
+    }
+
+    /**
+     * Name of the formatter implementation which was used, {@code direct} when formatting in-process,
+     * {@code bootstrapping} when formatting in a child process, or {@code server} when formatting using a server
+     * shared with other jvms.
+     */
+    public String facade() {
+        return facade;
+    }
+
+    /** Length of the unformatted source in characters. */
+    public long inputChars() {
+        return inputChars;
+    }
+
+    /**
+     * Length of the formatted source in characters, the length of the unformatted source if the deadline was
+     * exceeded, or zero if formatting failed.
+     */
+    public long outputChars() {
+        return outputChars;
+    }
+
+    /** Time elapsed on the calling thread, including time spent waiting for a child process. */
+    public Duration wallTime() {
+        return Duration.ofNanos(wallTimeNanos);
+    }
+
+    /** Wall time in nanoseconds, avoiding a {@link Duration} allocation. */
+    public long wallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    /**
+     * CPU time consumed by the child process while serving this call, which includes child jvm startup for the first
+     * call served by each process. Empty when formatting in-process, when the result was cached, or when the platform
+     * doesn't report process CPU time.
+     */
+    public Optional<Duration> childCpuTime() {
+        return childCpuTimeNanos == UNKNOWN ? Optional.empty() : Optional.of(Duration.ofNanos(childCpuTimeNanos));
+    }
+
+    /**
+     * Peak resident set size of the child process which served this call. Empty when formatting in-process, when the
+     * result was cached, or when the platform doesn't report it.
+     */
+    public OptionalLong childPeakRssBytes() {
+        return childPeakRssBytes == UNKNOWN ? OptionalLong.empty() : OptionalLong.of(childPeakRssBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "FormatEvent{className=" + className + ", facade=" + facade + ", inputChars=" + inputChars
+                + ", outputChars=" + outputChars + ", wallTime=" + wallTime() + ", outcome=" + outcome
+                + ", childCpuTime=" + childCpuTime() + ", childPeakRssBytes=" + childPeakRssBytes() + '}';
+    }
+}
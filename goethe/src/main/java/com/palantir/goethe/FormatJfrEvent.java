@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight recorder event covering a single format call, see {@link InstrumentedFormatterFacade}. */
+@Name("com.palantir.goethe.Format")
+@Label("Format Source")
+@Category("Goethe")
+@Description("Formatting of a single generated source file")
+final class FormatJfrEvent extends jdk.jfr.Event {
+
+    @Label("Class Name")
+    String className;
+
+    @Label("Facade")
+    @Description("Formatter implementation, direct, bootstrapping, or worker when recorded by a child process")
+    String facade;
+
+    @Label("Input Characters")
+    long inputChars;
+
+    @Label("Output Characters")
+    long outputChars;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,173 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link FormatListener} which records the distribution of format wall times, and the total time spent formatting
+ * each class so that expensive generators can be identified.
+ *
+ * <p>Latencies are recorded into log-linear buckets, eight per power of two, so reported percentiles are upper bounds
+ * within 12.5% of the recorded value. Recording is lock-free and allocation-free once a class has been seen.
+ *
+ * <pre>{@code
+ * FormatLatencyHistogram histogram = new FormatLatencyHistogram();
+ * Goethe.addListener(histogram);
+ * // ... generate code ...
+ * Duration p99 = histogram.percentile(0.99);
+ * Map<String, Duration> slowest = histogram.hotspots(10);
+ * }</pre>
+ */
+public final class FormatLatencyHistogram implements FormatListener {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deadlinesExceeded = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final Map<String, LongAdder> nanosByClass = new ConcurrentHashMap<>();
+
+    @Override
+    public void onFormat(FormatEvent event) {
+        long nanos = Math.max(0, event.wallTimeNanos());
+        buckets.incrementAndGet(bucketIndex(nanos));
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (event.outcome() == FormatEvent.Outcome.FAILURE) {
+            failures.increment();
+        } else if (event.outcome() == FormatEvent.Outcome.DEADLINE_EXCEEDED) {
+            deadlinesExceeded.increment();
+        }
+        nanosByClass.computeIfAbsent(event.className(), key -> new LongAdder()).add(nanos);
+    }
+
+    /** Number of recorded format calls, including failures. */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /** Number of recorded format calls which failed. */
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    /** Number of recorded format calls which exceeded the deadline and used the unformatted source. */
+    public long deadlineExceededCount() {
+        return deadlinesExceeded.sum();
+    }
+
+    /** Sum of the wall time of all recorded format calls. */
+    public Duration totalTime() {
+        return Duration.ofNanos(totalNanos.sum());
+    }
+
+    /** Mean wall time, or zero if nothing has been recorded. */
+    public Duration mean() {
+        long count = count();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+    }
+
+    /** The longest recorded wall time. */
+    public Duration max() {
+        return Duration.ofNanos(maxNanos.get());
+    }
+
+    /**
+     * Returns an upper bound of the wall time below which {@code quantile} of recorded calls completed, for example
+     * {@code percentile(0.99)} for the 99th percentile. Returns zero if nothing has been recorded.
+     */
+    public Duration percentile(double quantile) {
+        Preconditions.checkArgument(quantile >= 0 && quantile <= 1, "quantile must be within [0, 1]: %s", quantile);
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(bucketUpperBound(i), maxNanos.get()));
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Returns up to {@code limit} classes which took the longest to format in total, ordered from most to least
+     * expensive.
+     */
+    public Map<String, Duration> hotspots(int limit) {
+        Preconditions.checkArgument(limit >= 0, "limit must not be negative: %s", limit);
+        Map<String, Duration> hotspots = new LinkedHashMap<>();
+        nanosByClass.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEachOrdered(entry -> hotspots.put(entry.getKey(), Duration.ofNanos(entry.getValue())));
+        return hotspots;
+    }
+
+    @Override
+    public String toString() {
+        return "FormatLatencyHistogram{count=" + count() + ", failures=" + failureCount() + ", mean=" + mean()
+                + ", p50=" + percentile(0.5) + ", p99=" + percentile(0.99) + ", max=" + max() + '}';
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
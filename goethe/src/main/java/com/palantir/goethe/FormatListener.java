@@ -0,0 +1,31 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+/**
+ * Receives a {@link FormatEvent} describing each format call, allowing the cost of formatting to be measured.
+ * Listeners are registered using {@link Goethe#addListener(FormatListener)}, and are invoked synchronously on the
+ * formatting thread, so implementations must be thread-safe and should be cheap. Exceptions thrown by listeners are
+ * ignored.
+ *
+ * @see FormatLatencyHistogram
+ */
+@FunctionalInterface
+public interface FormatListener {
+
+    void onFormat(FormatEvent event);
+}
@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/** Outcome of formatting a single file as part of a batch, see {@link Goethe#formatAll(java.util.Collection)}. */
+public final class FormatResult {
+
+    private final String className;
+
+    // Exactly one of 'formatted' and 'failure' is non-null
+    private final String formatted;
+    private final GoetheException failure;
+
+    private FormatResult(String className, String formatted, GoetheException failure) {
+        this.className = className;
+        this.formatted = formatted;
+        this.failure = failure;
+    }
+
+    static FormatResult success(String className, String formatted) {
+        return new FormatResult(className, Objects.requireNonNull(formatted, "formatted"), null);
+    }
+
+    static FormatResult failure(String className, GoetheException failure) {
+        return new FormatResult(className, null, Objects.requireNonNull(failure, "failure"));
+    }
+
+    /** Fully qualified name of the type which was formatted. */
+    public String className() {
+        return className;
+    }
+
+    /** Returns {@code true} if the file was formatted successfully. */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * Returns the formatted source code.
+     *
+     * @throws GoetheException if the file could not be formatted
+     */
+    public String formatted() {
+        if (failure != null) {
+            throw failure;
+        }
+        return formatted;
+    }
+
+    /** The reason formatting failed, or empty if the file was formatted successfully. */
+    public Optional<GoetheException> failure() {
+        return Optional.ofNullable(failure);
+    }
+
+    @Override
+    public String toString() {
+        return "FormatResult{className=" + className + ", success=" + isSuccess() + '}';
+    }
+}
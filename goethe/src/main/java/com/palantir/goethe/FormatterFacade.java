@@ -16,7 +16,24 @@
 
 package com.palantir.goethe;
 
+import java.io.IOException;
+import java.io.Writer;
+
 interface FormatterFacade {
 
-    String formatSource(String className, String unformattedSource) throws GoetheException;
+    String formatSource(String className, CharSequence unformattedSource) throws GoetheException;
+
+    /**
+     * Formats {@code unformattedSource} into {@code output}. Nothing is written if formatting fails. Implementations
+     * may override this to avoid materializing the formatted source.
+     */
+    default void formatSource(String className, CharSequence unformattedSource, Writer output)
+            throws GoetheException, IOException {
+        output.write(formatSource(className, unformattedSource));
+    }
+
+    /** Statistics of the outermost in-memory cache, or {@link FormatCacheStats#EMPTY} if there is none. */
+    default FormatCacheStats cacheStats() {
+        return FormatCacheStats.EMPTY;
+    }
 }
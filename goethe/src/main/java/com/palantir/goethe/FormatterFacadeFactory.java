@@ -17,17 +17,121 @@
 package com.palantir.goethe;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 final class FormatterFacadeFactory {
+    static final String DIRECT = "direct";
+    static final String BOOTSTRAPPING = "bootstrapping";
+    static final String SERVER = "server";
+
     private FormatterFacadeFactory() {}
 
-    static FormatterFacade create() {
-        if (currentJvmHasExportArgs()) {
-            return new DirectFormatterFacade();
+    /**
+     * Creates the formatter stack configured by {@code builder}, reporting every call to the current and future
+     * contents of {@code listeners}.
+     */
+    static FormatterFacade create(GoetheFormatter.Builder builder, List<FormatListener> listeners) {
+        return create(builder, createBase(builder), listeners);
+    }
+
+    /** Creates the formatter stack configured by {@code builder} around a facade created by {@link #createBase}. */
+    static FormatterFacade create(
+            GoetheFormatter.Builder builder, FormatterFacade base, List<FormatListener> listeners) {
+        FormatterOptions options = builder.options();
+        FormatterFacade facade = base;
+        // Members are formatted independently, which isn't possible when unused imports depend on every member
+        if (builder.splitMinChars() < Long.MAX_VALUE && !options.importsOnly()) {
+            facade = new SplittingFormatterFacade(
+                    facade,
+                    builder.splitMinChars(),
+                    Runtime.getRuntime().availableProcessors(),
+                    BatchFormatter.memberExecutor());
+        }
+        if (builder.incrementalMaxBytes() > 0 && !options.importsOnly()) {
+            boolean verify = Boolean.getBoolean(IncrementalFormatterFacade.VERIFY_PROPERTY);
+            facade = new IncrementalFormatterFacade(facade, builder.incrementalMaxBytes(), verify);
+        }
+        // Below the caches, which must not retain the unformatted source used in place of an abandoned call
+        if (builder.deadline().isPresent()) {
+            facade = new DeadlineFormatterFacade(
+                    facade, builder.deadline().get(), BatchFormatter.deadlineExecutor());
+        }
+        return new InstrumentedFormatterFacade(createCached(facade, options, builder), facadeName(base), listeners);
+    }
+
+    /**
+     * Creates the facade which formats sources in-process, in child processes or using a server, without the
+     * splitting, caching, deadline or listeners configured by {@code builder}.
+     */
+    static FormatterFacade createBase(GoetheFormatter.Builder builder) {
+        FormatterOptions options = builder.options();
+        Optional<FormatterFacade> server = builder.server() ? createServer(builder, options) : Optional.empty();
+        return server.orElseGet(() -> createLocal(builder, options, canFormatInProcess(builder)));
+    }
+
+    private static String facadeName(FormatterFacade base) {
+        if (base instanceof ServerFormatterFacade) {
+            return SERVER;
+        }
+        return base instanceof DirectFormatterFacade ? DIRECT : BOOTSTRAPPING;
+    }
+
+    private static boolean canFormatInProcess(GoetheFormatter.Builder builder) {
+        // Prefer in-process formatting, exporting the required packages at runtime if the jvm flags are missing
+        return builder.inProcess() && (currentJvmHasExportArgs() || CompilerExports.tryExport());
+    }
+
+    private static FormatterFacade createLocal(
+            GoetheFormatter.Builder builder, FormatterOptions options, boolean direct) {
+        return direct
+                ? new DirectFormatterFacade(options)
+                : new BootstrappingFormatterFacade(options, builder.workerJvmOptions(), builder.deadline());
+    }
+
+    private static Optional<FormatterFacade> createServer(GoetheFormatter.Builder builder, FormatterOptions options) {
+        Path socket;
+        try {
+            socket = FormatterServer.socket(options);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        Duration idleTimeout = FormatterServer.idleTimeoutFromSystemProperties();
+        // Only resolved if the server is unavailable, which avoids starting workers which would never be used
+        Supplier<FormatterFacade> fallback =
+                Suppliers.memoize(() -> createLocal(builder, options, canFormatInProcess(builder)));
+        return Optional.of(new ServerFormatterFacade(
+                socket,
+                () -> FormatterServer.launch(socket, options, builder.workerJvmOptions(), idleTimeout),
+                fallback));
+    }
+
+    private static FormatterFacade createCached(
+            FormatterFacade facade, FormatterOptions options, GoetheFormatter.Builder builder) {
+        if (builder.diskCacheDirectory().isPresent()) {
+            facade = createDiskCache(
+                    facade, options, builder.diskCacheDirectory().get(), builder.diskCacheMaxBytes());
+        }
+        if (builder.cacheMaxBytes() > 0) {
+            return new CachingFormatterFacade(facade, options.fingerprint(), builder.cacheMaxBytes());
+        }
+        return facade;
+    }
+
+    private static FormatterFacade createDiskCache(
+            FormatterFacade facade, FormatterOptions options, Path directory, long maxBytes) {
+        try {
+            return DiskCachingFormatterFacade.open(facade, options.fingerprint(), directory, maxBytes);
+        } catch (IOException e) {
+            // The cache is an optimization, formatting must continue to work when the directory is unusable
+            return facade;
         }
-        return new BootstrappingFormatterFacade();
     }
 
     private static boolean currentJvmHasExportArgs() {
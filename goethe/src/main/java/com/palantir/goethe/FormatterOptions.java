@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Splitter;
+import com.palantir.javaformat.java.JavaFormatterOptions;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Describes how sources are formatted, see {@link GoetheFormatter.Builder}. Options are passed to formatter
+ * processes, and identify formatted output in caches, using their {@link #fingerprint()}.
+ */
+final class FormatterOptions {
+
+    static final FormatterOptions DEFAULT = new FormatterOptions(JavaFormatterOptions.Style.PALANTIR, true, false);
+
+    private final JavaFormatterOptions.Style style;
+    private final boolean formatJavadoc;
+    private final boolean importsOnly;
+
+    FormatterOptions(JavaFormatterOptions.Style style, boolean formatJavadoc, boolean importsOnly) {
+        this.style = style;
+        this.formatJavadoc = formatJavadoc;
+        this.importsOnly = importsOnly;
+    }
+
+    JavaFormatterOptions.Style style() {
+        return style;
+    }
+
+    /** Whether only imports and whitespace are fixed, leaving layout to the code generator. */
+    boolean importsOnly() {
+        return importsOnly;
+    }
+
+    JavaFormatterOptions javaFormatterOptions() {
+        return JavaFormatterOptions.builder()
+                .style(style)
+                .formatJavadoc(formatJavadoc)
+                .build();
+    }
+
+    /**
+     * Describes these options for use in cache keys, formatted output must not change unless this does. The default
+     * options retain the fingerprint used before options were configurable, so that existing caches remain valid.
+     */
+    String fingerprint() {
+        String fingerprint = "style=" + style + ",formatJavadoc=" + formatJavadoc;
+        return importsOnly ? fingerprint + ",importsOnly=true" : fingerprint;
+    }
+
+    /** Parses the result of {@link #fingerprint()}. */
+    static FormatterOptions parse(String fingerprint) {
+        Map<String, String> values =
+                Splitter.on(',').withKeyValueSeparator('=').split(fingerprint);
+        try {
+            return new FormatterOptions(
+                    JavaFormatterOptions.Style.valueOf(Objects.requireNonNull(values.get("style"))),
+                    Boolean.parseBoolean(values.get("formatJavadoc")),
+                    Boolean.parseBoolean(values.get("importsOnly")));
+        } catch (RuntimeException e) {
+            throw new GoetheException("Invalid formatter options: " + fingerprint, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return fingerprint();
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Formats sources for every jvm on the machine which uses the same Goethe installation and formatter options,
+ * listening on a unix domain socket. Builds run many jvms, such as Gradle workers and forked compilers, which would
+ * otherwise each pay for loading and jit compiling the formatter.
+ *
+ * <p>Connections are multiplexed: each request is tagged with an id chosen by the client, requests are formatted
+ * concurrently, and responses are written as they complete, in any order. A request is framed as its id, class name
+ * and source, and a response as its id, a {@link WorkerProtocol#STATUS_SUCCESS status} and either the formatted
+ * source or the failure message.
+ *
+ * <p>Servers are started on demand by {@link ServerFormatterFacade}, and exit once no request has been received for
+ * the idle timeout. A lock file held for the lifetime of the server ensures that only one server listens on each
+ * socket, and lets a new server replace the socket left behind by one which crashed.
+ */
+final class FormatterServer {
+
+    /** Argument which instructs {@link GoetheMain} to serve requests on a socket until idle. */
+    static final String SERVER_FLAG = "--server";
+
+    static final String ENABLED_PROPERTY = "goethe.server";
+    static final String DIRECTORY_PROPERTY = "goethe.server.directory";
+    static final String IDLE_MILLIS_PROPERTY = "goethe.server.idleMillis";
+
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    // Changed whenever the framing changes, so that clients never connect to an incompatible server
+    private static final int PROTOCOL_VERSION = 1;
+
+    private static final String SERVER_FACADE = "server";
+
+    private final Path socket;
+    private final FormatterFacade formatter;
+    private final Duration idleTimeout;
+    private final ExecutorService executor;
+    private final ThreadFactory connectionThreads = new ThreadFactoryBuilder()
+            .setNameFormat("goethe-server-connection-%d")
+            .setDaemon(true)
+            .build();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long lastActiveNanos = System.nanoTime();
+
+    @VisibleForTesting
+    FormatterServer(Path socket, FormatterFacade formatter, Duration idleTimeout, ExecutorService executor) {
+        this.socket = socket;
+        this.formatter = formatter;
+        this.idleTimeout = idleTimeout;
+        this.executor = executor;
+    }
+
+    /** Serves requests on {@code socket} using the current jvm, which must have the required exports, until idle. */
+    static void serve(Path socket, FormatterOptions options, Duration idleTimeout) throws IOException {
+        // Format events are recorded when the server is started with a flight recording
+        FormatterFacade formatter =
+                new InstrumentedFormatterFacade(new DirectFormatterFacade(options), SERVER_FACADE, List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("goethe-server-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            new FormatterServer(socket, formatter, idleTimeout, executor).run();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a server process for {@code socket} in the background, which outlives the current jvm until it is idle,
+     * and returns a future which completes once the process exits. The process exits immediately if another server
+     * is already listening on the socket.
+     */
+    static CompletableFuture<?> launch(
+            Path socket, FormatterOptions options, WorkerJvmOptions jvmOptions, Duration idleTimeout)
+            throws IOException {
+        Files.createDirectories(socket.getParent());
+        List<String> jvmArgs = ImmutableList.<String>builder()
+                .addAll(jvmOptions.serverJvmArgs())
+                .addAll(WorkerClassDataArchive.jvmArgs())
+                .build();
+        List<String> mainArgs = List.of(
+                SERVER_FLAG, socket.toString(), options.fingerprint(), Long.toString(idleTimeout.toMillis()));
+        Process process = new ProcessBuilder(FormatterWorker.command(jvmArgs, mainArgs))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile(socket).toFile()))
+                .start();
+        // The server never reads stdin, closing it leaves nothing tying the server to this jvm
+        process.getOutputStream().close();
+        return process.onExit();
+    }
+
+    /** Socket of the server formatting with {@code options} for the current jdk and Goethe installation. */
+    static Path socket(FormatterOptions options) throws IOException {
+        String key = FormatterWorker.installationHasher()
+                .putInt(PROTOCOL_VERSION)
+                .putString(options.fingerprint(), StandardCharsets.UTF_8)
+                .hash()
+                .toString();
+        // Socket paths are limited to around a hundred bytes, so the key is abbreviated
+        return directory().resolve("goethe-" + key.substring(0, 16) + ".sock");
+    }
+
+    /** File to which the output of the server listening on {@code socket} is appended. */
+    static Path logFile(Path socket) {
+        return socket.resolveSibling(socket.getFileName() + ".log");
+    }
+
+    static Duration idleTimeoutFromSystemProperties() {
+        long idleMillis = Long.getLong(IDLE_MILLIS_PROPERTY, 0L);
+        return idleMillis > 0 ? Duration.ofMillis(idleMillis) : DEFAULT_IDLE_TIMEOUT;
+    }
+
+    private static Path directory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null) {
+            return Paths.get(directory).toAbsolutePath();
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "goethe", "server");
+    }
+
+    /** Serves requests until idle, returning immediately if another server is listening on the socket. */
+    @VisibleForTesting
+    void run() throws IOException {
+        Files.createDirectories(socket.getParent());
+        Path lockFile = socket.resolveSibling(socket.getFileName() + ".lock");
+        try (FileChannel lockChannel =
+                        FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = tryLock(lockChannel)) {
+            if (lock == null) {
+                return;
+            }
+            // Nobody listens on a socket left behind by a server which crashed, but it can't be bound until deleted
+            Files.deleteIfExists(socket);
+            ScheduledExecutorService idleCheck = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("goethe-server-idle-%d")
+                    .setDaemon(true)
+                    .build());
+            try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+                server.bind(UnixDomainSocketAddress.of(socket));
+                long periodMillis = Math.max(1, idleTimeout.toMillis() / 4);
+                idleCheck.scheduleWithFixedDelay(
+                        () -> closeIfIdle(server), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+                accept(server);
+            } finally {
+                idleCheck.shutdownNow();
+                Files.deleteIfExists(socket);
+                // Clients waiting on these connections fail, and retry using a new server
+                connections.forEach(FormatterServer::closeQuietly);
+            }
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Another server in this jvm holds the lock, which only happens in tests
+            return null;
+        }
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        while (true) {
+            SocketChannel connection;
+            try {
+                connection = server.accept();
+            } catch (ClosedChannelException e) {
+                // Closed once idle
+                return;
+            }
+            connections.add(connection);
+            connectionThreads.newThread(() -> serve(connection)).start();
+        }
+    }
+
+    private void closeIfIdle(ServerSocketChannel server) {
+        if (inFlight.get() == 0 && System.nanoTime() - lastActiveNanos >= idleTimeout.toNanos()) {
+            closeQuietly(server);
+        }
+    }
+
+    /** Reads requests from {@code connection} until it is closed, formatting each one concurrently. */
+    private void serve(SocketChannel connection) {
+        try (connection) {
+            DataInputStream requests = new DataInputStream(new BufferedInputStream(inputStream(connection)));
+            DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(outputStream(connection)));
+            Lock responseLock = new ReentrantLock();
+            while (true) {
+                int id;
+                try {
+                    id = requests.readInt();
+                } catch (EOFException e) {
+                    // The client disconnected
+                    return;
+                }
+                String className = WorkerProtocol.readString(requests);
+                String source = WorkerProtocol.readString(requests);
+                inFlight.incrementAndGet();
+                lastActiveNanos = System.nanoTime();
+                executor.execute(() -> respond(id, className, source, responses, responseLock));
+            }
+        } catch (IOException e) {
+            // The connection failed, the client retries any request which didn't receive a response
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private void respond(int id, String className, String source, DataOutputStream responses, Lock responseLock) {
+        byte status;
+        String payload;
+        try {
+            payload = formatter.formatSource(className, source);
+            status = WorkerProtocol.STATUS_SUCCESS;
+        } catch (GoetheException e) {
+            payload = e.getMessage();
+            status = WorkerProtocol.STATUS_FAILURE;
+        } catch (RuntimeException e) {
+            payload = "Formatter failed formatting class " + className + ":\n" + Throwables.getStackTraceAsString(e);
+            status = WorkerProtocol.STATUS_FAILURE;
+        }
+        responseLock.lock();
+        try {
+            responses.writeInt(id);
+            responses.writeByte(status);
+            WorkerProtocol.writeString(responses, payload);
+            responses.flush();
+        } catch (IOException e) {
+            // The client disconnected
+        } finally {
+            responseLock.unlock();
+            lastActiveNanos = System.nanoTime();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Closing is best effort
+        }
+    }
+
+    /**
+     * Returns a stream reading from {@code channel}, which may be used while another thread writes to the channel.
+     * The streams returned by {@link java.nio.channels.Channels} serialize reads and writes of selectable channels.
+     */
+    static InputStream inputStream(SocketChannel channel) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] value = new byte[1];
+                return read(value, 0, 1) < 0 ? -1 : value[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                // Blocking channels read at least one byte unless the end of the stream has been reached
+                return channel.read(ByteBuffer.wrap(bytes, offset, length));
+            }
+        };
+    }
+
+    /** Returns a stream writing to {@code channel}, which may be used while another thread reads from the channel. */
+    static OutputStream outputStream(SocketChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int value) throws IOException {
+                write(new byte[] {(byte) value}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A long-lived {@link GoetheMain} process running in {@link WorkerProtocol#WORKER_FLAG worker mode} with the
+ * {@link BootstrappingFormatterFacade#EXPORTS required exports} applied. Workers format one request at a time, and
+ * are reused across requests to avoid paying for jvm startup, class loading, and jit warmup on every file.
+ */
+final class FormatterWorker implements Closeable {
+
+    /**
+     * Directory in which each worker writes a flight recording, named after the parent process id and a sequence
+     * number, which allows child activity to be analyzed alongside a recording of the parent.
+     */
+    static final String JFR_DIRECTORY_PROPERTY = "goethe.bootstrap.jfrDirectory";
+
+    private static final AtomicInteger WORKER_COUNTER = new AtomicInteger();
+
+    // How long a failed worker is given to exit and finish writing to stderr, which usually explains the failure
+    private static final Duration STDERR_WAIT = Duration.ofSeconds(1);
+
+    private final Process process;
+    private final long startNanos;
+    private final long maxHeapBytes;
+    private final DataOutputStream requests;
+    private final DataInputStream responses;
+    private final WorkerStderr stderr;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean aborted;
+
+    // Serializes requests. Unlike a monitor, waiting for a response while holding a lock doesn't pin virtual threads.
+    private final Lock lock = new ReentrantLock();
+
+    // Incremented while holding 'lock', atomic so that close may report it without blocking
+    private final AtomicInteger filesFormatted = new AtomicInteger();
+
+    // Written while holding 'lock', read by the pool after the request completes
+    private volatile long heapUsedBytes;
+
+    // Guarded by 'lock'
+    private long cpuTimeNanos;
+
+    private FormatterWorker(Process process, long startNanos, long maxHeapBytes) {
+        this.process = process;
+        this.startNanos = startNanos;
+        this.maxHeapBytes = maxHeapBytes;
+        this.requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        this.stderr = WorkerStderr.drain(process);
+    }
+
+    /** Starts a worker to format a source of {@code inputChars} characters, and subsequently any other source. */
+    static FormatterWorker start(FormatterOptions options, WorkerJvmOptions jvmOptions, long inputChars)
+            throws IOException {
+        WorkerSpawnJfrEvent event = new WorkerSpawnJfrEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        Optional<Path> recording = recordingFile();
+        ImmutableList.Builder<String> jvmArgs = ImmutableList.builder();
+        recording.ifPresent(file -> jvmArgs.add("-D" + GoetheMain.RECORDING_PROPERTY + '=' + file));
+        jvmArgs.addAll(jvmOptions.jvmArgs(inputChars));
+        jvmArgs.addAll(WorkerClassDataArchive.jvmArgs());
+        // Diagnostics are framed on stdout, stderr is drained concurrently and only reported if the worker fails
+        Process process = new ProcessBuilder(command(jvmArgs.build(), options)).start();
+        event.end();
+        if (event.shouldCommit()) {
+            event.pid = process.pid();
+            event.recording = recording.map(Path::toString).orElse(null);
+            event.commit();
+        }
+        return new FormatterWorker(process, startNanos, jvmOptions.heapBytes(inputChars));
+    }
+
+    /** Returns the command which launches a worker process with the given additional jvm arguments. */
+    static List<String> command(List<String> jvmArgs, FormatterOptions options) {
+        return command(jvmArgs, List.of(WorkerProtocol.WORKER_FLAG, options.fingerprint()));
+    }
+
+    /** Returns the command which runs {@link GoetheMain} with the required exports and the given arguments. */
+    static List<String> command(List<String> jvmArgs, List<String> mainArgs) {
+        return ImmutableList.<String>builder()
+                .add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath())
+                .addAll(BootstrappingFormatterFacade.EXPORTS)
+                // Stdout is reserved for framed responses, jvm logging such as recording startup uses stderr instead
+                .add("-Xlog:disable", "-Xlog:all=warning:stderr")
+                .addAll(jvmArgs)
+                .add( // Classpath
+                        "-cp",
+                        getClasspath(),
+                        // Main class
+                        GoetheMain.class.getName())
+                .addAll(mainArgs)
+                .build();
+    }
+
+    private static Optional<Path> recordingFile() {
+        String directory = System.getProperty(JFR_DIRECTORY_PROPERTY);
+        if (directory == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Paths.get(directory)
+                .toAbsolutePath()
+                .resolve("goethe-worker-" + ProcessHandle.current().pid() + '-' + WORKER_COUNTER.incrementAndGet()
+                        + ".jfr"));
+    }
+
+    /**
+     * Formats a single source file.
+     *
+     * @throws GoetheException if the source could not be formatted, in which case the worker remains usable
+     * @throws IOException if communication with the worker failed, in which case the worker must be discarded
+     */
+    String format(String className, CharSequence unformattedSource) throws IOException {
+        lock.lock();
+        try {
+            byte status = sendRequest(className, unformattedSource);
+            String payload = WorkerProtocol.readString(responses);
+            readTrailer();
+            if (status == WorkerProtocol.STATUS_FAILURE) {
+                throw new GoetheException(payload);
+            }
+            return payload;
+        } catch (IOException e) {
+            throw withStderr(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Formats a single source file into {@code output}, decoding the response directly from the worker.
+     *
+     * @throws GoetheException if the source could not be formatted, in which case nothing is written to
+     *     {@code output}, or if writing to {@code output} failed after formatting succeeded, in which case the worker
+     *     is closed
+     * @throws IOException if communication with the worker failed before anything was written to {@code output}, in
+     *     which case the worker must be discarded
+     */
+    void format(String className, CharSequence unformattedSource, Writer output) throws IOException {
+        lock.lock();
+        try {
+            byte status = sendRequest(className, unformattedSource);
+            if (status == WorkerProtocol.STATUS_FAILURE) {
+                String message = WorkerProtocol.readString(responses);
+                readTrailer();
+                throw new GoetheException(message);
+            }
+            try {
+                WorkerProtocol.readString(responses, output);
+                readTrailer();
+            } catch (IOException e) {
+                // Output may have been partially written, so the request cannot be retried
+                close();
+                throw new GoetheException("Failed to stream formatted output for class " + className, e);
+            }
+        } catch (IOException e) {
+            throw withStderr(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Writes a request and returns the response status. */
+    private byte sendRequest(String className, CharSequence unformattedSource) throws IOException {
+        WorkerProtocol.writeString(requests, className);
+        WorkerProtocol.writeString(requests, unformattedSource);
+        requests.flush();
+        byte status = responses.readByte();
+        if (status != WorkerProtocol.STATUS_SUCCESS && status != WorkerProtocol.STATUS_FAILURE) {
+            throw new IOException("Unexpected worker response status: " + status);
+        }
+        return status;
+    }
+
+    /** Adds whatever the worker wrote to stderr, typically the reason it crashed, to a communication failure. */
+    private IOException withStderr(IOException failure) {
+        if (aborted) {
+            return failure;
+        }
+        try {
+            if (process.waitFor(STDERR_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                stderr.awaitDrained(STDERR_WAIT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String tail = stderr.tail();
+        if (tail.isBlank()) {
+            return failure;
+        }
+        return new IOException(failure.getMessage() + "\nWorker stderr:\n" + tail, failure);
+    }
+
+    private void readTrailer() throws IOException {
+        heapUsedBytes = responses.readLong();
+        long totalCpuTimeNanos = responses.readLong();
+        long peakRssBytes = responses.readLong();
+        filesFormatted.incrementAndGet();
+        // The first request is charged for worker startup, which is part of the cost of bootstrapping
+        long requestCpuTimeNanos = totalCpuTimeNanos == WorkerStats.UNKNOWN
+                ? WorkerStats.UNKNOWN
+                : totalCpuTimeNanos - cpuTimeNanos;
+        cpuTimeNanos = totalCpuTimeNanos;
+        WorkerStats.record(requestCpuTimeNanos, peakRssBytes);
+    }
+
+    /** Number of requests this worker has served, including those which failed to format. */
+    int filesFormatted() {
+        return filesFormatted.get();
+    }
+
+    /** Heap usage reported by the worker after its most recent request. */
+    long heapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    /** Output the worker has written to stderr, limited to the most recent {@link WorkerStderr#MAX_BYTES_PROPERTY}. */
+    @VisibleForTesting
+    String stderr() {
+        return stderr.tail();
+    }
+
+    /** Maximum heap of the worker process, or {@link Long#MAX_VALUE} if it isn't bounded by Goethe. */
+    long maxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    /** Completes once the worker process has exited, whether it was closed or exited unexpectedly. */
+    CompletableFuture<?> onExit() {
+        return process.onExit();
+    }
+
+    boolean isAlive() {
+        return !closed.get() && process.isAlive();
+    }
+
+    /**
+     * Kills the worker process while a request may be in progress, which then fails with an {@link IOException}. The
+     * process is destroyed before closing its stdin, which a request blocked on a full pipe may be holding.
+     */
+    void abort() {
+        aborted = true;
+        process.destroyForcibly();
+        close();
+    }
+
+    /** Whether the worker was {@link #abort() aborted}. */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /** Terminates the worker process. Subsequent {@link #format(String, CharSequence)} calls will fail. */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        recordExit();
+        try {
+            requests.close();
+        } catch (IOException ignored) {
+            // The worker is being discarded regardless
+        } finally {
+            process.destroy();
+        }
+    }
+
+    private void recordExit() {
+        WorkerExitJfrEvent event = new WorkerExitJfrEvent();
+        if (event.shouldCommit()) {
+            boolean unexpected = !process.isAlive();
+            event.pid = process.pid();
+            event.filesFormatted = filesFormatted.get();
+            event.uptime = System.nanoTime() - startNanos;
+            event.unexpected = unexpected;
+            event.exitCode = unexpected ? process.exitValue() : -1;
+            event.commit();
+        }
+    }
+
+    static String getClasspath() {
+        return getPath(Goethe.class);
+    }
+
+    /**
+     * Hashes the jdk and the Goethe classpath which child processes are launched with, which identifies state that
+     * is shared by processes using the same installation.
+     */
+    static Hasher installationHasher() throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String property : List.of("java.home", "java.vm.vendor", "java.vm.version", "java.runtime.version")) {
+            hasher.putString(String.valueOf(System.getProperty(property)), StandardCharsets.UTF_8);
+        }
+        Path classpath = Paths.get(getClasspath());
+        hasher.putString(classpath.toString(), StandardCharsets.UTF_8);
+        if (Files.isRegularFile(classpath)) {
+            BasicFileAttributes attributes = Files.readAttributes(classpath, BasicFileAttributes.class);
+            hasher.putLong(attributes.size()).putLong(attributes.lastModifiedTime().toMillis());
+        }
+        BootstrappingFormatterFacade.EXPORTS.forEach(export -> hasher.putString(export, StandardCharsets.UTF_8));
+        return hasher;
+    }
+
+    private static String getPath(Class<?> clazz) {
+        try {
+            return new File(clazz.getProtectionDomain()
+                            .getCodeSource()
+                            .getLocation()
+                            .toURI())
+                    .getAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new GoetheException("Failed to locate the jar providing " + clazz, e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of {@link FormatterWorker} processes. At most {@code maxWorkers} requests are formatted
+ * concurrently, additional callers block until a worker becomes available. Each request is dispatched to an idle
+ * worker, preferring the most recently used one because it is the warmest, and new workers are only started when
+ * every existing worker is busy. Workers are recycled after formatting {@code maxFilesPerWorker} files, or once
+ * their reported heap usage exceeds {@code maxHeapBytesPerWorker}, which keeps the resident memory of long builds
+ * bounded. Workers are launched with {@link WorkerJvmOptions}, and idle workers whose heap is too small for a source
+ * are replaced rather than risk running out of memory. Workers which exceed the optional {@code requestTimeout} are
+ * killed, and the request fails as {@link GoetheException#isDeadlineExceeded() deadline exceeded} without a retry.
+ */
+final class FormatterWorkerPool {
+
+    static final String MAX_WORKERS_PROPERTY = "goethe.bootstrap.workers";
+    static final String MAX_FILES_PER_WORKER_PROPERTY = "goethe.bootstrap.maxFilesPerWorker";
+    static final String MAX_HEAP_BYTES_PER_WORKER_PROPERTY = "goethe.bootstrap.maxWorkerHeapBytes";
+
+    private static final int DEFAULT_MAX_FILES_PER_WORKER = 5_000;
+    private static final long DEFAULT_MAX_HEAP_BYTES_PER_WORKER = 512L * 1024 * 1024;
+
+    private final FormatterOptions options;
+    private final WorkerJvmOptions jvmOptions;
+    private final int maxFilesPerWorker;
+    private final long maxHeapBytesPerWorker;
+    private final Semaphore permits;
+    private final Optional<Duration> requestTimeout;
+
+    // Guarded by 'this'
+    private final Deque<FormatterWorker> idleWorkers = new ArrayDeque<>();
+
+    FormatterWorkerPool(int maxWorkers, int maxFilesPerWorker, long maxHeapBytesPerWorker) {
+        this(
+                FormatterOptions.DEFAULT,
+                WorkerJvmOptions.defaults(),
+                maxWorkers,
+                maxFilesPerWorker,
+                maxHeapBytesPerWorker,
+                Optional.empty());
+    }
+
+    FormatterWorkerPool(
+            FormatterOptions options,
+            WorkerJvmOptions jvmOptions,
+            int maxWorkers,
+            int maxFilesPerWorker,
+            long maxHeapBytesPerWorker,
+            Optional<Duration> requestTimeout) {
+        Preconditions.checkArgument(maxWorkers > 0, "maxWorkers must be positive: %s", maxWorkers);
+        Preconditions.checkArgument(
+                maxFilesPerWorker > 0, "maxFilesPerWorker must be positive: %s", maxFilesPerWorker);
+        Preconditions.checkArgument(
+                maxHeapBytesPerWorker > 0, "maxHeapBytesPerWorker must be positive: %s", maxHeapBytesPerWorker);
+        this.options = options;
+        this.jvmOptions = jvmOptions;
+        this.maxFilesPerWorker = maxFilesPerWorker;
+        this.maxHeapBytesPerWorker = maxHeapBytesPerWorker;
+        this.permits = new Semaphore(maxWorkers, true);
+        this.requestTimeout = requestTimeout;
+    }
+
+    /** Creates a pool configured by system properties, sized to the available processors by default. */
+    static FormatterWorkerPool fromSystemProperties() {
+        return fromSystemProperties(
+                FormatterOptions.DEFAULT, WorkerJvmOptions.fromSystemProperties(), Optional.empty());
+    }
+
+    /** Creates a pool launching workers with the given options, otherwise configured by system properties. */
+    static FormatterWorkerPool fromSystemProperties(
+            FormatterOptions options, WorkerJvmOptions jvmOptions, Optional<Duration> requestTimeout) {
+        return new FormatterWorkerPool(
+                options,
+                jvmOptions,
+                Integer.getInteger(MAX_WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger(MAX_FILES_PER_WORKER_PROPERTY, DEFAULT_MAX_FILES_PER_WORKER),
+                Long.getLong(MAX_HEAP_BYTES_PER_WORKER_PROPERTY, DEFAULT_MAX_HEAP_BYTES_PER_WORKER),
+                requestTimeout);
+    }
+
+    String format(String className, CharSequence unformattedSource) {
+        return execute(className, unformattedSource.length(), worker -> worker.format(className, unformattedSource));
+    }
+
+    void format(String className, CharSequence unformattedSource, Writer output) {
+        execute(className, unformattedSource.length(), worker -> {
+            worker.format(className, unformattedSource, output);
+            return null;
+        });
+    }
+
+    private <T> T execute(String className, int inputChars, WorkerRequest<T> request) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoetheException("Interrupted while waiting for a formatter worker", e);
+        }
+        try {
+            return executeWithPermit(className, inputChars, request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> T executeWithPermit(String className, int inputChars, WorkerRequest<T> request) {
+        FormatterWorker worker = checkout(inputChars);
+        try {
+            T result = executeOn(worker, request);
+            checkin(worker);
+            return result;
+        } catch (IOException e) {
+            worker.close();
+            if (worker.isAborted()) {
+                throw GoetheException.deadlineExceeded(className, requestTimeout.get());
+            }
+            // The worker may have been killed or crashed between requests, retry once using a fresh process.
+            FormatterWorker retryWorker = startWorker(inputChars);
+            try {
+                T result = executeOn(retryWorker, request);
+                checkin(retryWorker);
+                return result;
+            } catch (IOException retryFailure) {
+                retryWorker.close();
+                if (retryWorker.isAborted()) {
+                    throw GoetheException.deadlineExceeded(className, requestTimeout.get());
+                }
+                retryFailure.addSuppressed(e);
+                throw new GoetheException("Formatter worker failed formatting class " + className, retryFailure);
+            }
+        }
+    }
+
+    /** Formatting failures leave the worker healthy, so it is returned to the pool before rethrowing. */
+    private <T> T executeOn(FormatterWorker worker, WorkerRequest<T> request) throws IOException {
+        ScheduledFuture<?> watchdog = requestTimeout
+                .map(timeout -> Watchdog.SCHEDULER.schedule(worker::abort, timeout.toNanos(), TimeUnit.NANOSECONDS))
+                .orElse(null);
+        try {
+            return request.execute(worker);
+        } catch (GoetheException e) {
+            checkin(worker);
+            throw e;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    /** Must only be called while holding a permit, which guarantees an idle worker or capacity for a new one. */
+    private FormatterWorker checkout(int inputChars) {
+        long requiredHeapBytes = jvmOptions.heapBytes(inputChars);
+        while (true) {
+            FormatterWorker worker;
+            synchronized (this) {
+                worker = idleWorkers.pollFirst();
+            }
+            if (worker == null) {
+                return startWorker(inputChars);
+            }
+            if (worker.isAlive() && worker.maxHeapBytes() >= requiredHeapBytes) {
+                return worker;
+            }
+            worker.close();
+        }
+    }
+
+    private FormatterWorker startWorker(int inputChars) {
+        FormatterWorker worker;
+        try {
+            worker = FormatterWorker.start(options, jvmOptions, inputChars);
+        } catch (IOException e) {
+            throw new GoetheException("Failed to bootstrap jdk", e);
+        }
+        // Discard workers which exit while idle immediately, rather than when they are next checked out
+        worker.onExit().thenRun(() -> discard(worker));
+        return worker;
+    }
+
+    private void discard(FormatterWorker worker) {
+        synchronized (this) {
+            idleWorkers.remove(worker);
+        }
+        worker.close();
+    }
+
+    private void checkin(FormatterWorker worker) {
+        if (!worker.isAlive()
+                || worker.filesFormatted() >= maxFilesPerWorker
+                || worker.heapUsedBytes() >= maxHeapBytesPerWorker) {
+            worker.close();
+            return;
+        }
+        synchronized (this) {
+            idleWorkers.addFirst(worker);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int idleWorkers() {
+        return idleWorkers.size();
+    }
+
+    /** Terminates idle workers without removing them, simulating workers which die between requests. */
+    @VisibleForTesting
+    synchronized void killIdleWorkers() {
+        idleWorkers.forEach(FormatterWorker::close);
+    }
+
+    private static final class Watchdog {
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                        .setNameFormat("goethe-worker-watchdog-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    private interface WorkerRequest<T> {
+        T execute(FormatterWorker worker) throws IOException;
+    }
+}
@@ -16,15 +16,15 @@
 
 package com.palantir.goethe;
 
-import com.google.common.base.Preconditions;
-import com.google.common.base.Splitter;
-import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
-import java.nio.file.Files;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.annotation.processing.Filer;
-import javax.lang.model.element.Element;
-import javax.tools.JavaFileObject;
 
 /**
  * {@link Goethe} utility class provides clean formatting for generated sources.
@@ -33,11 +33,19 @@ import javax.tools.JavaFileObject;
  * String formatted = Goethe.formatAsString(poetFile);
  * // Annotation processing
  * Goethe.formatAndEmit(poetFile, annotationProcessorFiler);
+ * // Streaming into an existing writer
+ * Goethe.formatTo(poetFile, writer);
+ * // Many files at once, formatted in parallel
+ * List<FormatResult> results = Goethe.formatAll(poetFiles);
  * }</pre>
+ *
+ * <p>These methods use a shared default {@link GoetheFormatter}, generators which need different options, such as a
+ * cheaper formatting mode, may create their own using {@link GoetheFormatter#builder()}.
  */
 public final class Goethe {
 
-    private static final FormatterFacade JAVA_FORMATTER = FormatterFacadeFactory.create();
+    /** Configured by the {@code goethe.*} system properties. */
+    private static final GoetheFormatter DEFAULT = GoetheFormatter.fromSystemProperties().build();
 
     /**
      * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} into a {@link String}.
@@ -46,14 +54,7 @@ public final class Goethe {
      * @return Formatted source code
      */
     public static String formatAsString(com.palantir.javapoet.JavaFile file) {
-        StringBuilder rawSource = new StringBuilder();
-        try {
-            file.writeTo(rawSource);
-            return JAVA_FORMATTER.formatSource(
-                    file.packageName() + '.' + file.typeSpec().name(), rawSource.toString());
-        } catch (IOException e) {
-            throw new GoetheException("Formatting failed", e);
-        }
+        return DEFAULT.formatAsString(file);
     }
 
     /**
@@ -63,13 +64,227 @@ public final class Goethe {
      * @return Formatted source code
      */
     public static String formatAsString(com.squareup.javapoet.JavaFile file) {
-        StringBuilder rawSource = new StringBuilder();
-        try {
-            file.writeTo(rawSource);
-            return JAVA_FORMATTER.formatSource(file.packageName + '.' + file.typeSpec.name, rawSource.toString());
-        } catch (IOException e) {
-            throw new GoetheException("Formatting failed", e);
-        }
+        return DEFAULT.formatAsString(file);
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} directly into a {@link Writer}. Nothing is
+     * written if formatting fails. The writer is neither flushed nor closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatTo(com.palantir.javapoet.JavaFile file, Writer output) {
+        DEFAULT.formatTo(file, output);
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} directly into a {@link Writer}. Nothing is
+     * written if formatting fails. The writer is neither flushed nor closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatTo(com.squareup.javapoet.JavaFile file, Writer output) {
+        DEFAULT.formatTo(file, output);
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} directly into an {@link OutputStream} as
+     * UTF-8. Nothing is written if formatting fails. The stream is flushed, but not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatTo(com.palantir.javapoet.JavaFile file, OutputStream output) {
+        DEFAULT.formatTo(file, output);
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} directly into an {@link OutputStream} as
+     * UTF-8. Nothing is written if formatting fails. The stream is flushed, but not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatTo(com.squareup.javapoet.JavaFile file, OutputStream output) {
+        DEFAULT.formatTo(file, output);
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} directly into a
+     * {@link WritableByteChannel} as UTF-8. Nothing is written if formatting fails. The channel is not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatTo(com.palantir.javapoet.JavaFile file, WritableByteChannel output) {
+        DEFAULT.formatTo(file, output);
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} directly into a
+     * {@link WritableByteChannel} as UTF-8. Nothing is written if formatting fails. The channel is not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatTo(com.squareup.javapoet.JavaFile file, WritableByteChannel output) {
+        DEFAULT.formatTo(file, output);
+    }
+
+    /**
+     * Format java source code which was not produced by javapoet.
+     *
+     * @param className Fully qualified name of the primary type, used to describe failures
+     * @param unformattedSource Java source code to format
+     * @return Formatted source code
+     */
+    public static String formatSource(String className, CharSequence unformattedSource) {
+        return DEFAULT.formatSource(className, unformattedSource);
+    }
+
+    /**
+     * Format java source code which was not produced by javapoet directly into a {@link Writer}. Nothing is written
+     * if formatting fails. The writer is neither flushed nor closed.
+     *
+     * @param className Fully qualified name of the primary type, used to describe failures
+     * @param unformattedSource Java source code to format
+     * @param output Destination for the formatted source code
+     */
+    public static void formatSource(String className, CharSequence unformattedSource, Writer output) {
+        DEFAULT.formatSource(className, unformattedSource, output);
+    }
+
+    /**
+     * Format many {@link com.palantir.javapoet.JavaFile javapoet java files} in parallel using a shared executor
+     * sized to the available processors.
+     *
+     * @param files Javapoet files to format
+     * @return Formatting results in the same order as {@code files}
+     */
+    public static List<FormatResult> formatAll(Collection<com.palantir.javapoet.JavaFile> files) {
+        return DEFAULT.formatAll(files);
+    }
+
+    /**
+     * Format many {@link com.palantir.javapoet.JavaFile javapoet java files} in parallel using the provided
+     * {@code executor}. A failure to format one file does not prevent the others from being formatted, failures are
+     * reported by the corresponding {@link FormatResult}.
+     *
+     * @param files Javapoet files to format
+     * @param executor Executor used to format files
+     * @return Formatting results in the same order as {@code files}
+     */
+    public static List<FormatResult> formatAll(Collection<com.palantir.javapoet.JavaFile> files, Executor executor) {
+        return DEFAULT.formatAll(files, executor);
+    }
+
+    /**
+     * Format many {@link com.squareup.javapoet.JavaFile javapoet java files} in parallel using a shared executor
+     * sized to the available processors. This is the equivalent of {@link #formatAll(Collection)}, named
+     * differently because both collection types have the same erasure.
+     *
+     * @param files Javapoet files to format
+     * @return Formatting results in the same order as {@code files}
+     */
+    public static List<FormatResult> formatAllSquare(Collection<com.squareup.javapoet.JavaFile> files) {
+        return DEFAULT.formatAllSquare(files);
+    }
+
+    /**
+     * Format many {@link com.squareup.javapoet.JavaFile javapoet java files} in parallel using the provided
+     * {@code executor}. A failure to format one file does not prevent the others from being formatted, failures are
+     * reported by the corresponding {@link FormatResult}.
+     *
+     * @param files Javapoet files to format
+     * @param executor Executor used to format files
+     * @return Formatting results in the same order as {@code files}
+     */
+    public static List<FormatResult> formatAllSquare(
+            Collection<com.squareup.javapoet.JavaFile> files, Executor executor) {
+        return DEFAULT.formatAllSquare(files, executor);
+    }
+
+    /**
+     * Asynchronously format a {@link com.palantir.javapoet.JavaFile javapoet java file}, rendering and formatting on a
+     * virtual thread when running on jdk 21 or later, or on a shared executor sized to the available processors
+     * otherwise.
+     *
+     * @param file Javapoet file to format
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public static CompletableFuture<String> formatAsync(com.palantir.javapoet.JavaFile file) {
+        return DEFAULT.formatAsync(file);
+    }
+
+    /**
+     * Asynchronously format a {@link com.palantir.javapoet.JavaFile javapoet java file}, rendering and formatting
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param executor Executor used to render and format the file
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public static CompletableFuture<String> formatAsync(com.palantir.javapoet.JavaFile file, Executor executor) {
+        return DEFAULT.formatAsync(file, executor);
+    }
+
+    /**
+     * Asynchronously format a {@link com.squareup.javapoet.JavaFile javapoet java file}, rendering and formatting on a
+     * virtual thread when running on jdk 21 or later, or on a shared executor sized to the available processors
+     * otherwise.
+     *
+     * @param file Javapoet file to format
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public static CompletableFuture<String> formatAsync(com.squareup.javapoet.JavaFile file) {
+        return DEFAULT.formatAsync(file);
+    }
+
+    /**
+     * Asynchronously format a {@link com.squareup.javapoet.JavaFile javapoet java file}, rendering and formatting
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param executor Executor used to render and format the file
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public static CompletableFuture<String> formatAsync(com.squareup.javapoet.JavaFile file, Executor executor) {
+        return DEFAULT.formatAsync(file, executor);
+    }
+
+    /**
+     * Returns statistics for the formatted output cache, which is enabled by setting the
+     * {@code goethe.cache.maxBytes} system property to the maximum size of the cache in bytes. When the cache is
+     * disabled, all statistics are zero.
+     */
+    public static FormatCacheStats cacheStats() {
+        return DEFAULT.cacheStats();
+    }
+
+    /**
+     * Warms up the shared formatter in the background, so that the first sources formatted don't wait for the
+     * formatter to be loaded and compiled, or for a child process to start. Setting the {@code goethe.prewarm}
+     * system property to {@code true} does so as soon as this class is initialized.
+     *
+     * @return a future which completes once the formatter is warm
+     */
+    public static CompletableFuture<Void> prewarm() {
+        return DEFAULT.prewarm();
+    }
+
+    /**
+     * Registers a listener which is notified after every format call made through this class, for example a
+     * {@link FormatLatencyHistogram}. Calls are not measured while no listeners are registered.
+     */
+    public static void addListener(FormatListener listener) {
+        DEFAULT.addListener(listener);
+    }
+
+    /** Unregisters a listener previously passed to {@link #addListener(FormatListener)}. */
+    public static void removeListener(FormatListener listener) {
+        DEFAULT.removeListener(listener);
     }
 
     /**
@@ -80,28 +295,7 @@ public final class Goethe {
      * @param filer Destination for the formatted file
      */
     public static void formatAndEmit(com.palantir.javapoet.JavaFile file, Filer filer) {
-        String formatted = formatAsString(file);
-
-        JavaFileObject filerSourceFile = null;
-        try {
-            String className = file.packageName().isEmpty()
-                    ? file.typeSpec().name()
-                    : file.packageName() + "." + file.typeSpec().name();
-            filerSourceFile = filer.createSourceFile(
-                    className, file.typeSpec().originatingElements().toArray(new Element[0]));
-            try (Writer writer = filerSourceFile.openWriter()) {
-                writer.write(formatted);
-            }
-        } catch (IOException e) {
-            if (filerSourceFile != null) {
-                try {
-                    filerSourceFile.delete();
-                } catch (Exception deletionFailure) {
-                    e.addSuppressed(deletionFailure);
-                }
-            }
-            throw new GoetheException("Failed to write formatted code to the filer", e);
-        }
+        DEFAULT.formatAndEmit(file, filer);
     }
 
     /**
@@ -112,27 +306,7 @@ public final class Goethe {
      * @param filer Destination for the formatted file
      */
     public static void formatAndEmit(com.squareup.javapoet.JavaFile file, Filer filer) {
-        String formatted = formatAsString(file);
-
-        JavaFileObject filerSourceFile = null;
-        try {
-            String className =
-                    file.packageName.isEmpty() ? file.typeSpec.name : file.packageName + "." + file.typeSpec.name;
-            filerSourceFile =
-                    filer.createSourceFile(className, file.typeSpec.originatingElements.toArray(new Element[0]));
-            try (Writer writer = filerSourceFile.openWriter()) {
-                writer.write(formatted);
-            }
-        } catch (IOException e) {
-            if (filerSourceFile != null) {
-                try {
-                    filerSourceFile.delete();
-                } catch (Exception deletionFailure) {
-                    e.addSuppressed(deletionFailure);
-                }
-            }
-            throw new GoetheException("Failed to write formatted code to the filer", e);
-        }
+        DEFAULT.formatAndEmit(file, filer);
     }
 
     /**
@@ -143,15 +317,7 @@ public final class Goethe {
      * @return the new file location
      */
     public static Path formatAndEmit(com.palantir.javapoet.JavaFile file, Path baseDir) {
-        String formatted = formatAsString(file);
-        try {
-            Path output =
-                    getFilePath(baseDir, file.packageName(), file.typeSpec().name());
-            Files.writeString(output, formatted);
-            return output;
-        } catch (IOException e) {
-            throw new GoetheException("Failed to write formatted sources", e);
-        }
+        return DEFAULT.formatAndEmit(file, baseDir);
     }
 
     /**
@@ -162,34 +328,115 @@ public final class Goethe {
      * @return the new file location
      */
     public static Path formatAndEmit(com.squareup.javapoet.JavaFile file, Path baseDir) {
-        String formatted = formatAsString(file);
-        try {
-            Path output = getFilePath(baseDir, file.packageName, file.typeSpec.name);
-            Files.writeString(output, formatted);
-            return output;
-        } catch (IOException e) {
-            throw new GoetheException("Failed to write formatted sources", e);
-        }
-    }
-
-    /**
-     * Returns the full path for the given Java file and Java base dir. In a nutshell, turns packages into directories,
-     * e.g., {@code com.foo.bar.MyClass -> /<baseDir>/com/foo/bar/MyClass.java} and creates all directories.
-     */
-    private static Path getFilePath(Path baseDir, String packageName, String typeName) throws IOException {
-        Preconditions.checkArgument(
-                Files.notExists(baseDir) || Files.isDirectory(baseDir),
-                "path %s exists but is not a directory.",
-                baseDir);
-        Path outputDirectory = baseDir;
-        if (!packageName.isEmpty()) {
-            for (String packageComponent : Splitter.on(".").split(packageName)) {
-                outputDirectory = outputDirectory.resolve(packageComponent);
-            }
-            Files.createDirectories(outputDirectory);
-        }
-
-        return outputDirectory.resolve(typeName + ".java");
+        return DEFAULT.formatAndEmit(file, baseDir);
+    }
+
+    /**
+     * Formats the given Java file and emits it to the appropriate directory under {@code baseDir}, unless a file
+     * with identical content already exists. Leaving unchanged files untouched preserves their modification time,
+     * allowing build tools to skip dependent work.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the file location, and whether it was written
+     */
+    public static EmitResult formatAndEmitIfChanged(com.palantir.javapoet.JavaFile file, Path baseDir) {
+        return DEFAULT.formatAndEmitIfChanged(file, baseDir);
+    }
+
+    /**
+     * Formats the given Java file and emits it to the appropriate directory under {@code baseDir}, unless a file
+     * with identical content already exists. Leaving unchanged files untouched preserves their modification time,
+     * allowing build tools to skip dependent work.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the file location, and whether it was written
+     */
+    public static EmitResult formatAndEmitIfChanged(com.squareup.javapoet.JavaFile file, Path baseDir) {
+        return DEFAULT.formatAndEmitIfChanged(file, baseDir);
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * on a virtual thread when running on jdk 21 or later. There is no {@link Filer} equivalent because filers must
+     * only be used by the annotation processing thread.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public static CompletableFuture<Path> formatAndEmitAsync(com.palantir.javapoet.JavaFile file, Path baseDir) {
+        return DEFAULT.formatAndEmitAsync(file, baseDir);
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @param executor Executor used to render, format and write the file
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public static CompletableFuture<Path> formatAndEmitAsync(
+            com.palantir.javapoet.JavaFile file, Path baseDir, Executor executor) {
+        return DEFAULT.formatAndEmitAsync(file, baseDir, executor);
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * on a virtual thread when running on jdk 21 or later. There is no {@link Filer} equivalent because filers must
+     * only be used by the annotation processing thread.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public static CompletableFuture<Path> formatAndEmitAsync(com.squareup.javapoet.JavaFile file, Path baseDir) {
+        return DEFAULT.formatAndEmitAsync(file, baseDir);
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @param executor Executor used to render, format and write the file
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public static CompletableFuture<Path> formatAndEmitAsync(
+            com.squareup.javapoet.JavaFile file, Path baseDir, Executor executor) {
+        return DEFAULT.formatAndEmitAsync(file, baseDir, executor);
+    }
+
+    /**
+     * Creates an emitter which formats files in the background on a shared executor sized to the available
+     * processors, and writes them to {@code filer} when flushed. This allows annotation processors which generate
+     * many files per round to format them in parallel, while only using the filer from the processing thread.
+     *
+     * @param filer Destination for the formatted files
+     * @return an emitter which must be {@link DeferredFilerEmitter#flush() flushed} before the round completes
+     */
+    public static DeferredFilerEmitter deferredEmitter(Filer filer) {
+        return DEFAULT.deferredEmitter(filer);
+    }
+
+    /**
+     * Creates an emitter which formats files in the background using the given executor, and writes them to
+     * {@code filer} when flushed.
+     *
+     * @param filer Destination for the formatted files
+     * @param executor Executor used to render and format files
+     * @return an emitter which must be {@link DeferredFilerEmitter#flush() flushed} before the round completes
+     */
+    public static DeferredFilerEmitter deferredEmitter(Filer filer, Executor executor) {
+        return DEFAULT.deferredEmitter(filer, executor);
     }
 
     private Goethe() {}
@@ -16,13 +16,34 @@
 
 package com.palantir.goethe;
 
+import java.time.Duration;
+
 /** Marker exception describing failures emitted from the Goethe library. */
 public final class GoetheException extends IllegalStateException {
+    private final boolean deadlineExceeded;
+
     GoetheException(String message) {
-        super(message);
+        this(message, false);
     }
 
     GoetheException(String message, Throwable cause) {
         super(message, cause);
+        this.deadlineExceeded = false;
+    }
+
+    private GoetheException(String message, boolean deadlineExceeded) {
+        super(message);
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    /** Signals that formatting was abandoned after exceeding the configured deadline. */
+    static GoetheException deadlineExceeded(String className, Duration deadline) {
+        return new GoetheException(
+                "Formatting '" + className + "' exceeded the deadline of " + deadline.toMillis() + "ms", true);
+    }
+
+    /** Whether formatting was abandoned, in which case the unformatted source is used instead. */
+    boolean isDeadlineExceeded() {
+        return deadlineExceeded;
     }
 }
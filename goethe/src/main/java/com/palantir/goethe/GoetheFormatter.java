@@ -0,0 +1,940 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.palantir.javaformat.java.JavaFormatterOptions;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+
+/**
+ * Formats generated sources with configurable options. The static {@link Goethe} methods use a shared default
+ * instance, generators may create their own to choose a different style, or a cheaper profile:
+ * <pre>{@code
+ * GoetheFormatter formatter = GoetheFormatter.builder()
+ *         .formatJavadoc(false)
+ *         .mode(GoetheFormatter.Mode.IMPORTS_ONLY)
+ *         .build();
+ * formatter.formatAndEmit(poetFile, annotationProcessorFiler);
+ * }</pre>
+ *
+ * <p>Formatters are thread-safe. Each holds its own caches and, when formatting in child processes, its own pool of
+ * processes, so instances should be shared rather than created per file.
+ */
+public final class GoetheFormatter {
+
+    /** Code style used to lay out formatted sources. */
+    public enum Style {
+        PALANTIR(JavaFormatterOptions.Style.PALANTIR),
+        GOOGLE(JavaFormatterOptions.Style.GOOGLE),
+        AOSP(JavaFormatterOptions.Style.AOSP);
+
+        private final JavaFormatterOptions.Style style;
+
+        Style(JavaFormatterOptions.Style style) {
+            this.style = style;
+        }
+    }
+
+    /** How much of each source is formatted. */
+    public enum Mode {
+        /** Sources are laid out according to the {@link Style}, which is the default. */
+        FULL,
+        /**
+         * Unused imports are removed, the remaining imports are ordered according to the {@link Style}, and trailing
+         * whitespace is removed. Layout is otherwise left to the code generator, which is much cheaper than
+         * {@link #FULL} formatting, and sufficient for generators whose output is indented consistently.
+         */
+        IMPORTS_ONLY
+    }
+
+    /** Whether the formatter used by the static {@link Goethe} methods is warmed up when it is created. */
+    static final String PREWARM_PROPERTY = "goethe.prewarm";
+
+    // The hottest formatter methods are compiled after a few sources, the first is dominated by class loading
+    private static final int PREWARM_ITERATIONS = 3;
+
+    private static final Splitter PACKAGE_SPLITTER = Splitter.on('.');
+
+    /** Package directories which exist, keyed by base directory and package name. */
+    private static final Cache<List<Object>, Path> PACKAGE_DIRECTORIES =
+            CacheBuilder.newBuilder().maximumSize(4096).build();
+
+    private final List<FormatListener> listeners = new CopyOnWriteArrayList<>();
+    private final FormatterFacade base;
+    private final FormatterFacade facade;
+    private final Supplier<CompletableFuture<Void>> prewarm = Suppliers.memoize(this::startPrewarm);
+
+    private GoetheFormatter(Builder builder) {
+        this(builder, FormatterFacadeFactory.createBase(builder));
+    }
+
+    /** Creates a formatter which formats using {@code base}, such as a stub measuring everything except formatting. */
+    @VisibleForTesting
+    GoetheFormatter(Builder builder, FormatterFacade base) {
+        this.base = base;
+        this.facade = FormatterFacadeFactory.create(builder, base, listeners);
+        if (builder.prewarm()) {
+            prewarm();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Creates a builder configured by the system properties which configure the static {@link Goethe} methods. */
+    static Builder fromSystemProperties() {
+        Builder builder = builder().workerJvmOptions(WorkerJvmOptions.fromSystemProperties());
+        String cacheDirectory = System.getProperty(DiskCachingFormatterFacade.DIRECTORY_PROPERTY);
+        if (cacheDirectory != null) {
+            builder.diskCache(
+                    Paths.get(cacheDirectory),
+                    Long.getLong(
+                            DiskCachingFormatterFacade.MAX_BYTES_PROPERTY,
+                            DiskCachingFormatterFacade.DEFAULT_MAX_BYTES));
+        }
+        long cacheMaxBytes = Long.getLong(CachingFormatterFacade.MAX_BYTES_PROPERTY, 0L);
+        if (cacheMaxBytes > 0) {
+            builder.cacheMaxBytes(cacheMaxBytes);
+        }
+        long splitMinChars = Long.getLong(SplittingFormatterFacade.MIN_CHARS_PROPERTY, 0L);
+        if (splitMinChars > 0) {
+            builder.splitMinChars(splitMinChars);
+        }
+        long deadlineMillis = Long.getLong(DeadlineFormatterFacade.DEADLINE_MILLIS_PROPERTY, 0L);
+        if (deadlineMillis > 0) {
+            builder.deadline(Duration.ofMillis(deadlineMillis));
+        }
+        if (Boolean.getBoolean(FormatterServer.ENABLED_PROPERTY)) {
+            builder.server(true);
+        }
+        if (Boolean.getBoolean(PREWARM_PROPERTY)) {
+            builder.prewarm(true);
+        }
+        long incrementalMaxBytes = Long.getLong(IncrementalFormatterFacade.MAX_BYTES_PROPERTY, 0L);
+        if (incrementalMaxBytes > 0) {
+            builder.incrementalMaxBytes(incrementalMaxBytes);
+        }
+        return builder;
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} into a {@link String}.
+     *
+     * @param file Javapoet file to format
+     * @return Formatted source code
+     */
+    public String formatAsString(com.palantir.javapoet.JavaFile file) {
+        StringBuilder rawSource = render(file);
+        try {
+            return facade.formatSource(className(file), rawSource);
+        } finally {
+            RenderBuffers.release(rawSource);
+        }
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} into a {@link String}.
+     *
+     * @param file Javapoet file to format
+     * @return Formatted source code
+     */
+    public String formatAsString(com.squareup.javapoet.JavaFile file) {
+        StringBuilder rawSource = render(file);
+        try {
+            return facade.formatSource(className(file), rawSource);
+        } finally {
+            RenderBuffers.release(rawSource);
+        }
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} directly into a {@link Writer}. Nothing is
+     * written if formatting fails. The writer is neither flushed nor closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatTo(com.palantir.javapoet.JavaFile file, Writer output) {
+        StringBuilder rawSource = render(file);
+        try {
+            formatSource(className(file), rawSource, output);
+        } finally {
+            RenderBuffers.release(rawSource);
+        }
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} directly into a {@link Writer}. Nothing is
+     * written if formatting fails. The writer is neither flushed nor closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatTo(com.squareup.javapoet.JavaFile file, Writer output) {
+        StringBuilder rawSource = render(file);
+        try {
+            formatSource(className(file), rawSource, output);
+        } finally {
+            RenderBuffers.release(rawSource);
+        }
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} directly into an {@link OutputStream} as
+     * UTF-8. Nothing is written if formatting fails. The stream is flushed, but not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatTo(com.palantir.javapoet.JavaFile file, OutputStream output) {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        formatTo(file, writer);
+        flush(writer);
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} directly into an {@link OutputStream} as
+     * UTF-8. Nothing is written if formatting fails. The stream is flushed, but not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatTo(com.squareup.javapoet.JavaFile file, OutputStream output) {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        formatTo(file, writer);
+        flush(writer);
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} directly into a
+     * {@link WritableByteChannel} as UTF-8. Nothing is written if formatting fails. The channel is not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatTo(com.palantir.javapoet.JavaFile file, WritableByteChannel output) {
+        Writer writer = Channels.newWriter(output, StandardCharsets.UTF_8);
+        formatTo(file, writer);
+        flush(writer);
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} directly into a
+     * {@link WritableByteChannel} as UTF-8. Nothing is written if formatting fails. The channel is not closed.
+     *
+     * @param file Javapoet file to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatTo(com.squareup.javapoet.JavaFile file, WritableByteChannel output) {
+        Writer writer = Channels.newWriter(output, StandardCharsets.UTF_8);
+        formatTo(file, writer);
+        flush(writer);
+    }
+
+    /**
+     * Format java source code which was not produced by javapoet.
+     *
+     * @param className Fully qualified name of the primary type, used to describe failures
+     * @param unformattedSource Java source code to format
+     * @return Formatted source code
+     */
+    public String formatSource(String className, CharSequence unformattedSource) {
+        return facade.formatSource(className, unformattedSource);
+    }
+
+    /**
+     * Format java source code which was not produced by javapoet directly into a {@link Writer}. Nothing is written
+     * if formatting fails. The writer is neither flushed nor closed.
+     *
+     * @param className Fully qualified name of the primary type, used to describe failures
+     * @param unformattedSource Java source code to format
+     * @param output Destination for the formatted source code
+     */
+    public void formatSource(String className, CharSequence unformattedSource, Writer output) {
+        try {
+            facade.formatSource(className, unformattedSource, output);
+        } catch (IOException e) {
+            throw new GoetheException("Failed to write formatted sources", e);
+        }
+    }
+
+    /**
+     * Format many {@link com.palantir.javapoet.JavaFile javapoet java files} in parallel using a shared executor
+     * sized to the available processors.
+     *
+     * @param files Javapoet files to format
+     * @return Formatting results in the same order as {@code files}
+     */
+    public List<FormatResult> formatAll(Collection<com.palantir.javapoet.JavaFile> files) {
+        return formatAll(files, BatchFormatter.defaultExecutor());
+    }
+
+    /**
+     * Format many {@link com.palantir.javapoet.JavaFile javapoet java files} in parallel using the provided
+     * {@code executor}. A failure to format one file does not prevent the others from being formatted, failures are
+     * reported by the corresponding {@link FormatResult}.
+     *
+     * @param files Javapoet files to format
+     * @param executor Executor used to format files
+     * @return Formatting results in the same order as {@code files}
+     */
+    public List<FormatResult> formatAll(Collection<com.palantir.javapoet.JavaFile> files, Executor executor) {
+        return BatchFormatter.formatAll(files, GoetheFormatter::className, this::formatAsString, executor);
+    }
+
+    /**
+     * Format many {@link com.squareup.javapoet.JavaFile javapoet java files} in parallel using a shared executor
+     * sized to the available processors. This is the equivalent of {@link #formatAll(Collection)}, named
+     * differently because both collection types have the same erasure.
+     *
+     * @param files Javapoet files to format
+     * @return Formatting results in the same order as {@code files}
+     */
+    public List<FormatResult> formatAllSquare(Collection<com.squareup.javapoet.JavaFile> files) {
+        return formatAllSquare(files, BatchFormatter.defaultExecutor());
+    }
+
+    /**
+     * Format many {@link com.squareup.javapoet.JavaFile javapoet java files} in parallel using the provided
+     * {@code executor}. A failure to format one file does not prevent the others from being formatted, failures are
+     * reported by the corresponding {@link FormatResult}.
+     *
+     * @param files Javapoet files to format
+     * @param executor Executor used to format files
+     * @return Formatting results in the same order as {@code files}
+     */
+    public List<FormatResult> formatAllSquare(
+            Collection<com.squareup.javapoet.JavaFile> files, Executor executor) {
+        return BatchFormatter.formatAll(files, GoetheFormatter::className, this::formatAsString, executor);
+    }
+
+    /**
+     * Asynchronously format a {@link com.palantir.javapoet.JavaFile javapoet java file}, rendering and formatting on a
+     * virtual thread when running on jdk 21 or later, or on a shared executor sized to the available processors
+     * otherwise.
+     *
+     * @param file Javapoet file to format
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public CompletableFuture<String> formatAsync(com.palantir.javapoet.JavaFile file) {
+        return formatAsync(file, BatchFormatter.asyncExecutor());
+    }
+
+    /**
+     * Asynchronously format a {@link com.palantir.javapoet.JavaFile javapoet java file}, rendering and formatting
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param executor Executor used to render and format the file
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public CompletableFuture<String> formatAsync(com.palantir.javapoet.JavaFile file, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> formatAsString(file), executor);
+    }
+
+    /**
+     * Asynchronously format a {@link com.squareup.javapoet.JavaFile javapoet java file}, rendering and formatting on a
+     * virtual thread when running on jdk 21 or later, or on a shared executor sized to the available processors
+     * otherwise.
+     *
+     * @param file Javapoet file to format
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public CompletableFuture<String> formatAsync(com.squareup.javapoet.JavaFile file) {
+        return formatAsync(file, BatchFormatter.asyncExecutor());
+    }
+
+    /**
+     * Asynchronously format a {@link com.squareup.javapoet.JavaFile javapoet java file}, rendering and formatting
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param executor Executor used to render and format the file
+     * @return Formatted source code, or a future which fails with a {@link GoetheException} if formatting fails
+     */
+    public CompletableFuture<String> formatAsync(com.squareup.javapoet.JavaFile file, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> formatAsString(file), executor);
+    }
+
+    /**
+     * Returns statistics for the formatted output cache, which is enabled by {@link Builder#cacheMaxBytes(long)}.
+     * When the cache is disabled, all statistics are zero.
+     */
+    public FormatCacheStats cacheStats() {
+        return facade.cacheStats();
+    }
+
+    /**
+     * Warms up the formatter in the background, so that the first sources formatted don't wait for the formatter to
+     * be loaded and compiled, or for a child process or server to start. A representative source is formatted on a
+     * daemon thread without being cached or reported to listeners. Only the first call has an effect.
+     *
+     * @return a future which completes once the formatter is warm, or fails with a {@link GoetheException} if
+     *     formatting failed
+     */
+    public CompletableFuture<Void> prewarm() {
+        return prewarm.get();
+    }
+
+    private CompletableFuture<Void> startPrewarm() {
+        CompletableFuture<Void> warm = new CompletableFuture<>();
+        Thread thread = new Thread(
+                () -> {
+                    try {
+                        // Registering flight recorder events loads jfr, which may take as long as formatting itself
+                        new FormatJfrEvent().isEnabled();
+                        new EmitJfrEvent().isEnabled();
+                        for (int i = 0; i < PREWARM_ITERATIONS; i++) {
+                            base.formatSource(
+                                    WorkerClassDataArchive.TRAINING_CLASS_NAME, WorkerClassDataArchive.TRAINING_SOURCE);
+                        }
+                        warm.complete(null);
+                    } catch (RuntimeException e) {
+                        warm.completeExceptionally(e);
+                    }
+                },
+                "goethe-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+        return warm;
+    }
+
+    /**
+     * Registers a listener which is notified after every format call made through this formatter, for example a
+     * {@link FormatLatencyHistogram}. Calls are not measured while no listeners are registered.
+     */
+    public void addListener(FormatListener listener) {
+        listeners.add(Preconditions.checkNotNull(listener, "listener"));
+    }
+
+    /** Unregisters a listener previously passed to {@link #addListener(FormatListener)}. */
+    public void removeListener(FormatListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Format a {@link com.palantir.javapoet.JavaFile javapoet java file} and write the result to an {@link Filer annotation processing
+     * filer}.
+     *
+     * @param file Javapoet file to format
+     * @param filer Destination for the formatted file
+     */
+    public void formatAndEmit(com.palantir.javapoet.JavaFile file, Filer filer) {
+        String formatted = formatAsString(file);
+        emit(className(file), file.typeSpec().originatingElements().toArray(new Element[0]), formatted, filer);
+    }
+
+    /**
+     * Format a {@link com.squareup.javapoet.JavaFile javapoet java file} and write the result to an {@link Filer annotation processing
+     * filer}.
+     *
+     * @param file Javapoet file to format
+     * @param filer Destination for the formatted file
+     */
+    public void formatAndEmit(com.squareup.javapoet.JavaFile file, Filer filer) {
+        String formatted = formatAsString(file);
+        emit(className(file), file.typeSpec.originatingElements.toArray(new Element[0]), formatted, filer);
+    }
+
+    /**
+     * Formats the given Java file and emits it to the appropriate directory under {@code baseDir}.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the new file location
+     */
+    public Path formatAndEmit(com.palantir.javapoet.JavaFile file, Path baseDir) {
+        String formatted = formatAsString(file);
+        return emit(className(file), baseDir, file.packageName(), file.typeSpec().name(), formatted, false)
+                .path();
+    }
+
+    /**
+     * Formats the given Java file and emits it to the appropriate directory under {@code baseDir}.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the new file location
+     */
+    public Path formatAndEmit(com.squareup.javapoet.JavaFile file, Path baseDir) {
+        String formatted = formatAsString(file);
+        return emit(className(file), baseDir, file.packageName, file.typeSpec.name, formatted, false)
+                .path();
+    }
+
+    /**
+     * Formats the given Java file and emits it to the appropriate directory under {@code baseDir}, unless a file
+     * with identical content already exists. Leaving unchanged files untouched preserves their modification time,
+     * allowing build tools to skip dependent work.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the file location, and whether it was written
+     */
+    public EmitResult formatAndEmitIfChanged(com.palantir.javapoet.JavaFile file, Path baseDir) {
+        String formatted = formatAsString(file);
+        return emit(className(file), baseDir, file.packageName(), file.typeSpec().name(), formatted, true);
+    }
+
+    /**
+     * Formats the given Java file and emits it to the appropriate directory under {@code baseDir}, unless a file
+     * with identical content already exists. Leaving unchanged files untouched preserves their modification time,
+     * allowing build tools to skip dependent work.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the file location, and whether it was written
+     */
+    public EmitResult formatAndEmitIfChanged(com.squareup.javapoet.JavaFile file, Path baseDir) {
+        String formatted = formatAsString(file);
+        return emit(className(file), baseDir, file.packageName, file.typeSpec.name, formatted, true);
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * on a virtual thread when running on jdk 21 or later. There is no {@link Filer} equivalent because filers must
+     * only be used by the annotation processing thread.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public CompletableFuture<Path> formatAndEmitAsync(com.palantir.javapoet.JavaFile file, Path baseDir) {
+        return formatAndEmitAsync(file, baseDir, BatchFormatter.asyncExecutor());
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @param executor Executor used to render, format and write the file
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public CompletableFuture<Path> formatAndEmitAsync(
+            com.palantir.javapoet.JavaFile file, Path baseDir, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> formatAndEmit(file, baseDir), executor);
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * on a virtual thread when running on jdk 21 or later. There is no {@link Filer} equivalent because filers must
+     * only be used by the annotation processing thread.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public CompletableFuture<Path> formatAndEmitAsync(com.squareup.javapoet.JavaFile file, Path baseDir) {
+        return formatAndEmitAsync(file, baseDir, BatchFormatter.asyncExecutor());
+    }
+
+    /**
+     * Asynchronously formats the given Java file and emits it to the appropriate directory under {@code baseDir},
+     * using the given executor.
+     *
+     * @param file Javapoet file to format
+     * @param baseDir Source set root where the formatted file will be written
+     * @param executor Executor used to render, format and write the file
+     * @return the new file location, or a future which fails with a {@link GoetheException} if formatting or writing
+     *     fails
+     */
+    public CompletableFuture<Path> formatAndEmitAsync(
+            com.squareup.javapoet.JavaFile file, Path baseDir, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> formatAndEmit(file, baseDir), executor);
+    }
+
+    /**
+     * Creates an emitter which formats files in the background on a shared executor sized to the available
+     * processors, and writes them to {@code filer} when flushed. This allows annotation processors which generate
+     * many files per round to format them in parallel, while only using the filer from the processing thread.
+     *
+     * @param filer Destination for the formatted files
+     * @return an emitter which must be {@link DeferredFilerEmitter#flush() flushed} before the round completes
+     */
+    public DeferredFilerEmitter deferredEmitter(Filer filer) {
+        return deferredEmitter(filer, BatchFormatter.defaultExecutor());
+    }
+
+    /**
+     * Creates an emitter which formats files in the background using the given executor, and writes them to
+     * {@code filer} when flushed.
+     *
+     * @param filer Destination for the formatted files
+     * @param executor Executor used to render and format files
+     * @return an emitter which must be {@link DeferredFilerEmitter#flush() flushed} before the round completes
+     */
+    public DeferredFilerEmitter deferredEmitter(Filer filer, Executor executor) {
+        return new DeferredFilerEmitter(this, filer, executor);
+    }
+
+    /**
+     * Writes formatted source to the filer, deleting the partially written file if writing fails. Must be called from
+     * the annotation processing thread.
+     */
+    static void emit(String className, Element[] originatingElements, String formatted, Filer filer) {
+        EmitJfrEvent event = EmitJfrEvent.start();
+        JavaFileObject filerSourceFile = null;
+        boolean written = false;
+        try {
+            filerSourceFile = filer.createSourceFile(className, originatingElements);
+            try (Writer writer = filerSourceFile.openWriter()) {
+                writer.write(formatted);
+            }
+            written = true;
+        } catch (IOException e) {
+            if (filerSourceFile != null) {
+                try {
+                    filerSourceFile.delete();
+                } catch (Exception deletionFailure) {
+                    e.addSuppressed(deletionFailure);
+                }
+            }
+            throw new GoetheException("Failed to write formatted code to the filer", e);
+        } finally {
+            String destination = filerSourceFile == null ? "filer" : filerSourceFile.getName();
+            event.finish(className, destination, formatted.length(), written);
+        }
+    }
+
+    private static EmitResult emit(
+            String className,
+            Path baseDir,
+            String packageName,
+            String typeName,
+            String formatted,
+            boolean onlyIfChanged) {
+        EmitJfrEvent event = EmitJfrEvent.start();
+        Path output = null;
+        boolean written = false;
+        try {
+            output = getFilePath(baseDir, packageName, typeName);
+            try {
+                written = write(output, formatted, onlyIfChanged);
+            } catch (NoSuchFileException e) {
+                // The cached package directory was deleted, for example by a clean build in a long-lived daemon
+                PACKAGE_DIRECTORIES.invalidate(List.of(baseDir, packageName));
+                output = getFilePath(baseDir, packageName, typeName);
+                written = write(output, formatted, onlyIfChanged);
+            }
+            return new EmitResult(output, written);
+        } catch (IOException e) {
+            throw new GoetheException("Failed to write formatted sources", e);
+        } finally {
+            event.finish(className, output == null ? baseDir : output, formatted.length(), written);
+        }
+    }
+
+    private static boolean write(Path output, String formatted, boolean onlyIfChanged) throws IOException {
+        if (onlyIfChanged) {
+            return SourceFiles.writeIfChanged(output, formatted);
+        }
+        Files.writeString(output, formatted);
+        return true;
+    }
+
+    /**
+     * Renders the file into a pooled buffer without copying the result, the formatter accepts any
+     * {@link CharSequence}. The buffer must be {@link RenderBuffers#release released} once formatted.
+     */
+    private static StringBuilder render(com.palantir.javapoet.JavaFile file) {
+        StringBuilder rawSource = RenderBuffers.acquire();
+        try {
+            file.writeTo(rawSource);
+        } catch (IOException e) {
+            RenderBuffers.release(rawSource);
+            throw new GoetheException("Formatting failed", e);
+        }
+        return rawSource;
+    }
+
+    /**
+     * Renders the file into a pooled buffer without copying the result, the formatter accepts any
+     * {@link CharSequence}. The buffer must be {@link RenderBuffers#release released} once formatted.
+     */
+    private static StringBuilder render(com.squareup.javapoet.JavaFile file) {
+        StringBuilder rawSource = RenderBuffers.acquire();
+        try {
+            file.writeTo(rawSource);
+        } catch (IOException e) {
+            RenderBuffers.release(rawSource);
+            throw new GoetheException("Formatting failed", e);
+        }
+        return rawSource;
+    }
+
+    private static void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new GoetheException("Failed to write formatted sources", e);
+        }
+    }
+
+    static String className(com.palantir.javapoet.JavaFile file) {
+        return file.packageName().isEmpty()
+                ? file.typeSpec().name()
+                : file.packageName() + "." + file.typeSpec().name();
+    }
+
+    static String className(com.squareup.javapoet.JavaFile file) {
+        return file.packageName.isEmpty() ? file.typeSpec.name : file.packageName + "." + file.typeSpec.name;
+    }
+
+    /**
+     * Returns the full path for the given Java file and Java base dir. In a nutshell, turns packages into directories,
+     * e.g., {@code com.foo.bar.MyClass -> /<baseDir>/com/foo/bar/MyClass.java} and creates all directories.
+     *
+     * <p>Package directories are cached once created, because generators emit many files into each package, and
+     * {@link Files#createDirectories} throws and catches an exception for every directory which already exists.
+     */
+    private static Path getFilePath(Path baseDir, String packageName, String typeName) throws IOException {
+        List<Object> key = List.of(baseDir, packageName);
+        Path outputDirectory = PACKAGE_DIRECTORIES.getIfPresent(key);
+        if (outputDirectory == null) {
+            outputDirectory = createPackageDirectory(baseDir, packageName);
+            PACKAGE_DIRECTORIES.put(key, outputDirectory);
+        }
+        return outputDirectory.resolve(typeName + ".java");
+    }
+
+    private static Path createPackageDirectory(Path baseDir, String packageName) throws IOException {
+        Preconditions.checkArgument(
+                Files.notExists(baseDir) || Files.isDirectory(baseDir),
+                "path %s exists but is not a directory.",
+                baseDir);
+        Path outputDirectory = baseDir;
+        if (!packageName.isEmpty()) {
+            for (String packageComponent : PACKAGE_SPLITTER.split(packageName)) {
+                outputDirectory = outputDirectory.resolve(packageComponent);
+            }
+            Files.createDirectories(outputDirectory);
+        }
+        return outputDirectory;
+    }
+
+    public static final class Builder {
+        private Style style = Style.PALANTIR;
+        private boolean formatJavadoc = true;
+        private Mode mode = Mode.FULL;
+        private boolean inProcess = true;
+        private boolean server;
+        private boolean prewarm;
+        private WorkerJvmOptions workerJvmOptions = WorkerJvmOptions.defaults();
+        private long cacheMaxBytes;
+        private Optional<Path> diskCacheDirectory = Optional.empty();
+        private long diskCacheMaxBytes = DiskCachingFormatterFacade.DEFAULT_MAX_BYTES;
+        private long incrementalMaxBytes;
+        private long splitMinChars = SplittingFormatterFacade.DEFAULT_MIN_CHARS;
+        private Optional<Duration> deadline = Optional.empty();
+
+        private Builder() {}
+
+        /** Code style, {@link Style#PALANTIR} by default. */
+        public Builder style(Style value) {
+            this.style = Preconditions.checkNotNull(value, "style");
+            return this;
+        }
+
+        /** Whether javadoc is reflowed, {@code true} by default. Disabling this makes formatting cheaper. */
+        public Builder formatJavadoc(boolean value) {
+            this.formatJavadoc = value;
+            return this;
+        }
+
+        /** How much of each source is formatted, {@link Mode#FULL} by default. */
+        public Builder mode(Mode value) {
+            this.mode = Preconditions.checkNotNull(value, "mode");
+            return this;
+        }
+
+        /**
+         * Whether sources may be formatted in the current jvm, {@code true} by default. Sources are otherwise
+         * formatted by child processes, as they are when the current jvm cannot format in-process.
+         */
+        public Builder inProcess(boolean value) {
+            this.inProcess = value;
+            return this;
+        }
+
+        /**
+         * Whether sources are formatted by a server which is shared by every jvm on the machine using the same
+         * Goethe installation and options, {@code false} by default. The server listens on a unix domain socket, is
+         * started on demand and exits once idle. Sources are formatted as if this were disabled if the server can't
+         * be started.
+         */
+        public Builder server(boolean value) {
+            this.server = value;
+            return this;
+        }
+
+        /**
+         * Whether the formatter is {@link GoetheFormatter#prewarm() warmed up} in the background once built,
+         * {@code false} by default.
+         */
+        public Builder prewarm(boolean value) {
+            this.prewarm = value;
+            return this;
+        }
+
+        /** Options for the child processes which format sources when they cannot be formatted in-process. */
+        public Builder workerJvmOptions(WorkerJvmOptions value) {
+            this.workerJvmOptions = Preconditions.checkNotNull(value, "workerJvmOptions");
+            return this;
+        }
+
+        /** Caches up to {@code value} bytes of formatted output in memory, keyed by the unformatted source. */
+        public Builder cacheMaxBytes(long value) {
+            Preconditions.checkArgument(value > 0, "cacheMaxBytes must be positive: %s", value);
+            this.cacheMaxBytes = value;
+            return this;
+        }
+
+        /**
+         * Persists formatted output in {@code directory}, which may be shared by many processes, for example across
+         * builds on a CI agent. The least recently used entries are removed once it exceeds 256 MiB.
+         */
+        public Builder diskCache(Path directory) {
+            return diskCache(directory, DiskCachingFormatterFacade.DEFAULT_MAX_BYTES);
+        }
+
+        /**
+         * Persists formatted output in {@code directory}, which may be shared by many processes. The least recently
+         * used entries are removed once it exceeds {@code maxBytes}.
+         */
+        public Builder diskCache(Path directory, long maxBytes) {
+            Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+            this.diskCacheDirectory = Optional.of(directory);
+            this.diskCacheMaxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Remembers up to {@code value} bytes of previous output, keyed by class name, so that regenerating a class in
+         * which only some members changed formats just those members. Has no effect in {@link Mode#IMPORTS_ONLY}.
+         */
+        public Builder incrementalMaxBytes(long value) {
+            Preconditions.checkArgument(value > 0, "incrementalMaxBytes must be positive: %s", value);
+            this.incrementalMaxBytes = value;
+            return this;
+        }
+
+        /**
+         * Sources of at least {@code value} characters, 262,144 by default, are split into chunks of members which
+         * are formatted in parallel. Output is identical to formatting the whole source, which is done instead when
+         * a source can't be split safely. Splitting is disabled by {@link Long#MAX_VALUE}, and in
+         * {@link Mode#IMPORTS_ONLY}.
+         */
+        public Builder splitMinChars(long value) {
+            Preconditions.checkArgument(value > 0, "splitMinChars must be positive: %s", value);
+            this.splitMinChars = value;
+            return this;
+        }
+
+        /**
+         * Abandons format calls which take longer than {@code value}, using the unformatted source instead so that a
+         * pathological source or unresponsive child process can't stall the build. Child processes are killed, and
+         * abandoned calls are reported with {@link FormatEvent.Outcome#DEADLINE_EXCEEDED}. Unbounded by default.
+         */
+        public Builder deadline(Duration value) {
+            Preconditions.checkArgument(
+                    !value.isNegative() && !value.isZero(), "deadline must be positive: %s", value);
+            this.deadline = Optional.of(value);
+            return this;
+        }
+
+        FormatterOptions options() {
+            return new FormatterOptions(style.style, formatJavadoc, mode == Mode.IMPORTS_ONLY);
+        }
+
+        boolean inProcess() {
+            return inProcess;
+        }
+
+        boolean server() {
+            return server;
+        }
+
+        boolean prewarm() {
+            return prewarm;
+        }
+
+        WorkerJvmOptions workerJvmOptions() {
+            return workerJvmOptions;
+        }
+
+        long cacheMaxBytes() {
+            return cacheMaxBytes;
+        }
+
+        Optional<Path> diskCacheDirectory() {
+            return diskCacheDirectory;
+        }
+
+        long diskCacheMaxBytes() {
+            return diskCacheMaxBytes;
+        }
+
+        long incrementalMaxBytes() {
+            return incrementalMaxBytes;
+        }
+
+        long splitMinChars() {
+            return splitMinChars;
+        }
+
+        Optional<Duration> deadline() {
+            return deadline;
+        }
+
+        /** Creates a formatter, which may be used concurrently and should be shared rather than created per file. */
+        public GoetheFormatter build() {
+            return new GoetheFormatter(this);
+        }
+    }
+}
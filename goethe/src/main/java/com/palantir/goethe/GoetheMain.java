@@ -16,17 +16,64 @@
 
 package com.palantir.goethe;
 
+import com.google.common.base.Throwables;
 import com.google.common.io.ByteStreams;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
-/** Main class used internally to bootstrap the formatter with additional jvm args for compiler class access. */
+/**
+ * Main class used internally to bootstrap the formatter with additional jvm args for compiler class access.
+ * When invoked with a class name, a single source file is read from stdin and the formatted result is written to
+ * stdout. When invoked with {@link WorkerProtocol#WORKER_FLAG}, optionally followed by
+ * {@link FormatterOptions#fingerprint() formatter options}, framed requests are served until stdin is closed. When
+ * invoked with {@link FormatterServer#SERVER_FLAG}, followed by a socket path, formatter options and an idle timeout
+ * in milliseconds, a {@link FormatterServer} listens on the socket until idle. When invoked with
+ * {@link #FORMAT_FLAG}, every source under the given roots is formatted in place:
+ * <pre>
+ * GoetheMain --format [--threads N] ROOT...
+ * </pre>
+ */
 @SuppressWarnings({"checkstyle:BanSystemErr", "checkstyle:BanSystemOut"})
 final class GoetheMain {
 
+    /** Flight recording file written by a worker, which is started once stdout is reserved for responses. */
+    static final String RECORDING_PROPERTY = "goethe.worker.recording";
+
+    static final String FORMAT_FLAG = "--format";
+
+    private static final String THREADS_FLAG = "--threads";
+    private static final String WORKER_FACADE = "worker";
+
     private GoetheMain() {}
 
     public static void main(String[] args) throws IOException {
+        if (args.length > 0 && WorkerProtocol.WORKER_FLAG.equals(args[0])) {
+            runWorker(args.length > 1 ? FormatterOptions.parse(args[1]) : FormatterOptions.DEFAULT);
+            return;
+        }
+        if (args.length == 4 && FormatterServer.SERVER_FLAG.equals(args[0])) {
+            FormatterServer.serve(
+                    Paths.get(args[1]), FormatterOptions.parse(args[2]), Duration.ofMillis(Long.parseLong(args[3])));
+            return;
+        }
+        if (args.length > 0 && FORMAT_FLAG.equals(args[0])) {
+            System.exit(formatRoots(List.of(args).subList(1, args.length)));
+        }
         if (args.length != 1) {
             System.err.println("Class name argument is required");
             System.exit(1);
@@ -40,4 +87,82 @@ final class GoetheMain {
             System.exit(1);
         }
     }
+
+    private static int formatRoots(List<String> args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> roots = args;
+        if (args.size() >= 2 && THREADS_FLAG.equals(args.get(0))) {
+            threads = Integer.parseInt(args.get(1));
+            roots = args.subList(2, args.size());
+        }
+        if (roots.isEmpty()) {
+            System.err.println("Usage: " + FORMAT_FLAG + " [" + THREADS_FLAG + " N] ROOT...");
+            return 1;
+        }
+        FormatterFacade formatter =
+                FormatterFacadeFactory.create(GoetheFormatter.fromSystemProperties(), List.of());
+        DirectoryFormatter.Summary summary = new DirectoryFormatter(formatter, threads)
+                .format(roots.stream().map(Paths::get).collect(Collectors.toList()));
+        summary.failures().forEach(System.err::println);
+        System.out.println(summary);
+        return summary.failures().isEmpty() ? 0 : 1;
+    }
+
+    private static void runWorker(FormatterOptions options) throws IOException {
+        DataInputStream requests = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream responses =
+                new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        // Stdout is reserved for framed responses, stray output must not corrupt the stream.
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true, StandardCharsets.UTF_8));
+        startRecording();
+        // Format events are recorded when the worker is started with a flight recording
+        FormatterFacade formatter =
+                new InstrumentedFormatterFacade(new DirectFormatterFacade(options), WORKER_FACADE, List.of());
+        while (true) {
+            String className;
+            try {
+                className = WorkerProtocol.readString(requests);
+            } catch (EOFException e) {
+                // Stdin was closed by the parent process
+                return;
+            }
+            String input = WorkerProtocol.readString(requests);
+            try {
+                String formatted = formatter.formatSource(className, input);
+                responses.writeByte(WorkerProtocol.STATUS_SUCCESS);
+                WorkerProtocol.writeString(responses, formatted);
+            } catch (GoetheException e) {
+                responses.writeByte(WorkerProtocol.STATUS_FAILURE);
+                WorkerProtocol.writeString(responses, e.getMessage());
+            } catch (RuntimeException e) {
+                responses.writeByte(WorkerProtocol.STATUS_FAILURE);
+                WorkerProtocol.writeString(
+                        responses,
+                        "Formatter failed formatting class " + className + ":\n" + Throwables.getStackTraceAsString(e));
+            }
+            Runtime runtime = Runtime.getRuntime();
+            responses.writeLong(runtime.totalMemory() - runtime.freeMemory());
+            responses.writeLong(WorkerStats.currentProcessCpuTimeNanos());
+            responses.writeLong(WorkerStats.currentProcessPeakRssBytes());
+            responses.flush();
+        }
+    }
+
+    private static void startRecording() throws IOException {
+        String file = System.getProperty(RECORDING_PROPERTY);
+        if (file == null) {
+            return;
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration("default");
+        } catch (ParseException e) {
+            throw new IOException("Failed to load the default recording configuration", e);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName("goethe-worker");
+        recording.setDestination(Paths.get(file));
+        recording.setDumpOnExit(true);
+        recording.start();
+    }
 }
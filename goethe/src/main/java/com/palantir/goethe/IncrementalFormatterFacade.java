@@ -0,0 +1,202 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link FormatterFacade} which remembers the previous unformatted and formatted source of each class, and when a
+ * class is regenerated with only some of its members changed, formats just those members and splices them into the
+ * previous output.
+ *
+ * <p>The formatter lays out an entire compilation unit even when asked for specific character ranges, so rather than
+ * formatting ranges of the previous output, changed members are formatted in a smaller unit consisting of the type
+ * declaration and the changed members. Blank lines before a member depend on the member preceding it, so a member
+ * is only reused when both it and its predecessor are unchanged. Sources which can't be {@link TypeBody split} into
+ * members, or whose type declaration changed, are formatted in full.
+ *
+ * <p>Output is expected to be identical to formatting in full. When {@code verify} is set, which is intended for
+ * tests, every incremental result is compared with a full format and the full result is used if they differ.
+ */
+final class IncrementalFormatterFacade implements FormatterFacade {
+
+    static final String MAX_BYTES_PROPERTY = "goethe.incremental.maxBytes";
+    static final String VERIFY_PROPERTY = "goethe.incremental.verify";
+
+    // Rough per-entry overhead of the class name, the cache entry, and the member map
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final FormatterFacade delegate;
+    private final boolean verify;
+    private final Cache<String, Generation> generations;
+    private final AtomicLong incrementalFormats = new AtomicLong();
+    private final AtomicLong verificationFailures = new AtomicLong();
+
+    IncrementalFormatterFacade(FormatterFacade delegate, long maxBytes, boolean verify) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+        this.delegate = delegate;
+        this.verify = verify;
+        this.generations = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String className, Generation generation) -> generation.weight())
+                .build();
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        String source = unformattedSource.toString();
+        Optional<TypeBody> body = TypeBody.parse(source);
+        if (body.isEmpty()) {
+            generations.invalidate(className);
+            return delegate.formatSource(className, source);
+        }
+        Generation previous = generations.getIfPresent(className);
+        Optional<String> incremental =
+                previous == null ? Optional.empty() : formatIncrementally(className, body.get(), previous);
+        String formatted = incremental.isPresent()
+                ? verified(className, source, incremental.get())
+                : delegate.formatSource(className, source);
+        Optional<Generation> next = Generation.of(body.get(), formatted);
+        if (next.isPresent()) {
+            generations.put(className, next.get());
+        } else {
+            generations.invalidate(className);
+        }
+        return formatted;
+    }
+
+    private Optional<String> formatIncrementally(String className, TypeBody body, Generation previous) {
+        if (!previous.header.equals(body.header()) || !previous.footer.equals(body.footer())) {
+            return Optional.empty();
+        }
+        List<String> members = body.members();
+        List<Integer> changed = new ArrayList<>();
+        for (int index = 0; index < members.size(); index++) {
+            if (!previous.members.containsKey(Generation.key(members, index))) {
+                changed.add(index);
+            }
+        }
+        // Each changed member is formatted after its predecessor, nothing is saved once that covers every member
+        if (changed.size() * 2 >= members.size()) {
+            return Optional.empty();
+        }
+        Map<Integer, String> formattedMembers = Map.of();
+        if (!changed.isEmpty()) {
+            try {
+                Optional<TypeBody.FormattedMembers> result = body.formatMembers(delegate, className, changed);
+                if (result.isEmpty()) {
+                    return Optional.empty();
+                }
+                formattedMembers = result.get().members();
+            } catch (GoetheException e) {
+                if (e.isDeadlineExceeded()) {
+                    throw e;
+                }
+                // Reported with the line numbers of the complete source instead
+                return Optional.empty();
+            }
+        }
+        StringBuilder output = new StringBuilder(previous.formattedHeader);
+        for (int index = 0; index < members.size(); index++) {
+            String member = formattedMembers.get(index);
+            output.append(member != null ? member : previous.members.get(Generation.key(members, index)));
+        }
+        incrementalFormats.incrementAndGet();
+        return Optional.of(output.append(previous.formattedFooter).toString());
+    }
+
+    private String verified(String className, String source, String incremental) {
+        if (!verify) {
+            return incremental;
+        }
+        String full = delegate.formatSource(className, source);
+        if (!full.equals(incremental)) {
+            verificationFailures.incrementAndGet();
+        }
+        return full;
+    }
+
+    @Override
+    public FormatCacheStats cacheStats() {
+        return delegate.cacheStats();
+    }
+
+    /** Number of sources which were formatted incrementally rather than in full. */
+    @VisibleForTesting
+    long incrementalFormats() {
+        return incrementalFormats.get();
+    }
+
+    /** Number of incremental results which differed from formatting in full, only counted when verifying. */
+    @VisibleForTesting
+    long verificationFailures() {
+        return verificationFailures.get();
+    }
+
+    /** The most recent unformatted and formatted source of a class, split into members. */
+    private static final class Generation {
+        private final String header;
+        private final String footer;
+        private final String formattedHeader;
+        private final String formattedFooter;
+        // Formatted members keyed by the unformatted member and its predecessor
+        private final ImmutableMap<List<String>, String> members;
+        private final int weight;
+
+        private Generation(TypeBody body, TypeBody formatted) {
+            this.header = body.header();
+            this.footer = body.footer();
+            this.formattedHeader = formatted.header();
+            this.formattedFooter = formatted.footer();
+            Map<List<String>, String> formattedMembers = new HashMap<>();
+            long chars = header.length() + footer.length() + formattedHeader.length() + formattedFooter.length();
+            for (int index = 0; index < body.members().size(); index++) {
+                formattedMembers.put(key(body.members(), index), formatted.members().get(index));
+                chars += body.members().get(index).length() + formatted.members().get(index).length();
+            }
+            this.members = ImmutableMap.copyOf(formattedMembers);
+            // Predecessors are shared with the previous key, strings are at most two bytes per character
+            this.weight = (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + 2L * chars);
+        }
+
+        /** Returns the generation for {@code formatted}, or empty if its members don't correspond to the source. */
+        static Optional<Generation> of(TypeBody body, String formatted) {
+            return TypeBody.parse(formatted)
+                    .filter(formattedBody ->
+                            formattedBody.members().size() == body.members().size())
+                    .map(formattedBody -> new Generation(body, formattedBody));
+        }
+
+        static List<String> key(List<String> members, int index) {
+            return List.of(index == 0 ? "" : members.get(index - 1), members.get(index));
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * The outermost {@link FormatterFacade}, which reports a {@link FormatEvent} for every call to the registered
+ * {@link FormatListener listeners}, and records a {@link FormatJfrEvent} when flight recording is enabled. Calls are
+ * not measured while neither is the case.
+ *
+ * <p>Calls which exceed the {@link DeadlineFormatterFacade deadline} produce the unformatted source, with a warning.
+ */
+final class InstrumentedFormatterFacade implements FormatterFacade {
+
+    private static final System.Logger LOGGER = System.getLogger(InstrumentedFormatterFacade.class.getName());
+
+    private final FormatterFacade delegate;
+    private final String facadeName;
+    private final List<FormatListener> listeners;
+
+    /**
+     * Creates a facade reporting to {@code listeners}, which must be safe to iterate while listeners are concurrently
+     * registered.
+     */
+    InstrumentedFormatterFacade(FormatterFacade delegate, String facadeName, List<FormatListener> listeners) {
+        this.delegate = delegate;
+        this.facadeName = facadeName;
+        this.listeners = listeners;
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        FormatJfrEvent jfrEvent = new FormatJfrEvent();
+        if (listeners.isEmpty() && !jfrEvent.isEnabled()) {
+            try {
+                return delegate.formatSource(className, unformattedSource);
+            } catch (GoetheException e) {
+                return unformatted(unformattedSource, e);
+            }
+        }
+        WorkerStats.takeLast();
+        jfrEvent.begin();
+        long start = System.nanoTime();
+        String formatted = null;
+        FormatEvent.Outcome outcome = FormatEvent.Outcome.FAILURE;
+        try {
+            formatted = delegate.formatSource(className, unformattedSource);
+            outcome = FormatEvent.Outcome.SUCCESS;
+            return formatted;
+        } catch (GoetheException e) {
+            formatted = unformatted(unformattedSource, e);
+            outcome = FormatEvent.Outcome.DEADLINE_EXCEEDED;
+            return formatted;
+        } finally {
+            int outputChars = formatted == null ? 0 : formatted.length();
+            report(jfrEvent, className, unformattedSource.length(), outputChars, start, outcome);
+        }
+    }
+
+    @Override
+    public void formatSource(String className, CharSequence unformattedSource, Writer output)
+            throws GoetheException, IOException {
+        FormatJfrEvent jfrEvent = new FormatJfrEvent();
+        if (listeners.isEmpty() && !jfrEvent.isEnabled()) {
+            try {
+                delegate.formatSource(className, unformattedSource, output);
+            } catch (GoetheException e) {
+                // Abandoned calls haven't written anything
+                output.write(unformatted(unformattedSource, e));
+            }
+            return;
+        }
+        WorkerStats.takeLast();
+        jfrEvent.begin();
+        long start = System.nanoTime();
+        CountingWriter countingOutput = new CountingWriter(output);
+        FormatEvent.Outcome outcome = FormatEvent.Outcome.FAILURE;
+        try {
+            delegate.formatSource(className, unformattedSource, countingOutput);
+            outcome = FormatEvent.Outcome.SUCCESS;
+        } catch (GoetheException e) {
+            countingOutput.write(unformatted(unformattedSource, e));
+            outcome = FormatEvent.Outcome.DEADLINE_EXCEEDED;
+        } finally {
+            report(jfrEvent, className, unformattedSource.length(), countingOutput.count, start, outcome);
+        }
+    }
+
+    /** Returns the unformatted source in place of a call which exceeded the deadline, rethrowing other failures. */
+    private static String unformatted(CharSequence unformattedSource, GoetheException failure) {
+        if (!failure.isDeadlineExceeded()) {
+            throw failure;
+        }
+        LOGGER.log(System.Logger.Level.WARNING, "{0}, using the unformatted source instead", failure.getMessage());
+        return unformattedSource.toString();
+    }
+
+    @Override
+    public FormatCacheStats cacheStats() {
+        return delegate.cacheStats();
+    }
+
+    private void report(
+            FormatJfrEvent jfrEvent,
+            String className,
+            long inputChars,
+            long outputChars,
+            long startNanos,
+            FormatEvent.Outcome outcome) {
+        long wallTimeNanos = System.nanoTime() - startNanos;
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.className = className;
+            jfrEvent.facade = facadeName;
+            jfrEvent.inputChars = inputChars;
+            jfrEvent.outputChars = outputChars;
+            jfrEvent.success = outcome == FormatEvent.Outcome.SUCCESS;
+            jfrEvent.commit();
+        }
+        if (listeners.isEmpty()) {
+            return;
+        }
+        WorkerStats workerStats = WorkerStats.takeLast();
+        FormatEvent event = new FormatEvent(
+                className,
+                facadeName,
+                inputChars,
+                outputChars,
+                wallTimeNanos,
+                outcome,
+                workerStats == null ? WorkerStats.UNKNOWN : workerStats.cpuTimeNanos(),
+                workerStats == null ? WorkerStats.UNKNOWN : workerStats.peakRssBytes());
+        for (FormatListener listener : listeners) {
+            try {
+                listener.onFormat(event);
+            } catch (RuntimeException e) {
+                // Metrics must never break formatting
+            }
+        }
+    }
+
+    private static final class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int character) throws IOException {
+            out.write(character);
+            count++;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            out.write(string, offset, length);
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffers which javapoet files are rendered into before they are formatted. Rendering into a new
+ * {@link StringBuilder} reallocates it every time it doubles, leaving garbage several times the size of the source
+ * for every file, so buffers are reused once formatting has finished reading them.
+ *
+ * <p>Idle buffers are kept in a lock-free pool, which retains enough to serve the available processors without
+ * growing unbounded under bursts of concurrency such as virtual threads. Buffers which grew beyond
+ * {@link #MAX_RETAINED_CHARS} rendering an unusually large file are dropped, rather than retained indefinitely.
+ */
+final class RenderBuffers {
+
+    @VisibleForTesting
+    static final int MAX_RETAINED_CHARS = 1024 * 1024;
+
+    // Large enough for typical generated sources, which then render without reallocating even the first time
+    private static final int INITIAL_CHARS = 16 * 1024;
+
+    private static final int MAX_IDLE_BUFFERS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final Queue<StringBuilder> IDLE_BUFFERS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger IDLE_BUFFER_COUNT = new AtomicInteger();
+
+    private RenderBuffers() {}
+
+    /** Returns an empty buffer which no other caller is using, until it is {@link #release released}. */
+    static StringBuilder acquire() {
+        StringBuilder buffer = IDLE_BUFFERS.poll();
+        if (buffer == null) {
+            return new StringBuilder(INITIAL_CHARS);
+        }
+        IDLE_BUFFER_COUNT.decrementAndGet();
+        return buffer;
+    }
+
+    /** Returns a buffer to the pool. Neither the caller, nor anything the buffer was passed to, may still use it. */
+    static void release(StringBuilder buffer) {
+        if (buffer.capacity() > MAX_RETAINED_CHARS) {
+            return;
+        }
+        buffer.setLength(0);
+        // Reserve a slot before offering so that concurrent releases cannot exceed the limit
+        if (IDLE_BUFFER_COUNT.incrementAndGet() <= MAX_IDLE_BUFFERS) {
+            IDLE_BUFFERS.offer(buffer);
+        } else {
+            IDLE_BUFFER_COUNT.decrementAndGet();
+        }
+    }
+
+    @VisibleForTesting
+    static int idleBuffers() {
+        return IDLE_BUFFER_COUNT.get();
+    }
+}
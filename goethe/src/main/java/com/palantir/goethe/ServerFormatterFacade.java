@@ -0,0 +1,287 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Formats sources using a {@link FormatterServer} which is shared with other jvms on the machine, starting one if
+ * none is listening. Concurrent calls are multiplexed over a single connection, and a call is retried once using a
+ * new connection if the server exits while it is in progress, which happens when a server becomes idle.
+ *
+ * <p>Sources are formatted by {@code fallback} instead if a server can't be started or fails repeatedly, after which
+ * this facade stops using the server.
+ */
+final class ServerFormatterFacade implements FormatterFacade {
+
+    private static final System.Logger LOGGER = System.getLogger(ServerFormatterFacade.class.getName());
+
+    // Bounds the jvm startup of a server, which is usually well under a second
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+    private static final long STARTUP_POLL_MILLIS = 20;
+    private static final int MAX_LAUNCHES = 3;
+
+    private final Path socket;
+    private final Launcher launcher;
+    private final Supplier<FormatterFacade> fallback;
+    private final Lock connectLock = new ReentrantLock();
+
+    // Replaced while holding 'connectLock'
+    private volatile Connection connection;
+
+    private volatile boolean unavailable;
+
+    ServerFormatterFacade(Path socket, Launcher launcher, Supplier<FormatterFacade> fallback) {
+        this.socket = socket;
+        this.launcher = launcher;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        if (!unavailable) {
+            try {
+                return format(className, unformattedSource);
+            } catch (IOException e) {
+                unavailable = true;
+                LOGGER.log(
+                        System.Logger.Level.WARNING,
+                        "Formatter server at " + socket + " is unavailable, formatting in this jvm instead",
+                        e);
+            }
+        }
+        return fallback.get().formatSource(className, unformattedSource);
+    }
+
+    private String format(String className, CharSequence unformattedSource) throws IOException {
+        Connection current = connect(null);
+        try {
+            return current.format(className, unformattedSource);
+        } catch (IOException e) {
+            // The server may have exited because it was idle, or crashed, either way a new server is started
+            try {
+                return connect(current).format(className, unformattedSource);
+            } catch (IOException retryFailure) {
+                retryFailure.addSuppressed(e);
+                throw retryFailure;
+            }
+        }
+    }
+
+    /** Returns an open connection, which is never {@code failed}, connecting if necessary. */
+    private Connection connect(Connection failed) throws IOException {
+        Connection current = connection;
+        if (current != null && current != failed && current.isOpen()) {
+            return current;
+        }
+        connectLock.lock();
+        try {
+            current = connection;
+            if (current != null && current != failed && current.isOpen()) {
+                return current;
+            }
+            if (current != null) {
+                current.close();
+            }
+            connection = null;
+            current = open();
+            connection = current;
+            return current;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private Connection open() throws IOException {
+        try {
+            return Connection.open(socket);
+        } catch (IOException e) {
+            // No server is listening, one is started below
+        }
+        CompletableFuture<?> exited = launcher.launch();
+        int launches = 1;
+        long startNanos = System.nanoTime();
+        while (true) {
+            try {
+                return Connection.open(socket);
+            } catch (IOException e) {
+                if (System.nanoTime() - startNanos > STARTUP_TIMEOUT.toNanos()) {
+                    throw new IOException("Timed out waiting for the formatter server at " + socket + " to start", e);
+                }
+                if (exited.isDone()) {
+                    // Either this server failed, or another server held the socket and has since become idle
+                    if (launches >= MAX_LAUNCHES) {
+                        throw new IOException(
+                                "Formatter server failed to start, see " + FormatterServer.logFile(socket), e);
+                    }
+                    exited = launcher.launch();
+                    launches++;
+                }
+            }
+            try {
+                Thread.sleep(STARTUP_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GoetheException("Interrupted while starting the formatter server", e);
+            }
+        }
+    }
+
+    /** Whether a server failed, and sources are now formatted by the fallback. */
+    @VisibleForTesting
+    boolean isUnavailable() {
+        return unavailable;
+    }
+
+    /** Starts a server in the background. */
+    interface Launcher {
+        /** Returns a future which completes once the server has exited. */
+        CompletableFuture<?> launch() throws IOException;
+    }
+
+    /** A connection on which requests are multiplexed, their responses are dispatched by a reader thread. */
+    private static final class Connection implements Closeable {
+        private static final AtomicInteger CONNECTION_COUNTER = new AtomicInteger();
+
+        private final SocketChannel channel;
+        private final DataOutputStream requests;
+        private final DataInputStream responses;
+        private final Map<Integer, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+
+        // Serializes requests. Unlike a monitor, writing while holding a lock doesn't pin virtual threads.
+        private final Lock requestLock = new ReentrantLock();
+
+        private volatile IOException failure;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.requests =
+                    new DataOutputStream(new BufferedOutputStream(FormatterServer.outputStream(channel)));
+            this.responses = new DataInputStream(new BufferedInputStream(FormatterServer.inputStream(channel)));
+        }
+
+        static Connection open(Path socket) throws IOException {
+            Connection connection = new Connection(SocketChannel.open(UnixDomainSocketAddress.of(socket)));
+            Thread reader = new Thread(
+                    connection::readResponses, "goethe-server-client-" + CONNECTION_COUNTER.incrementAndGet());
+            reader.setDaemon(true);
+            reader.start();
+            return connection;
+        }
+
+        String format(String className, CharSequence unformattedSource) throws IOException {
+            int id = nextId.incrementAndGet();
+            CompletableFuture<String> response = new CompletableFuture<>();
+            pending.put(id, response);
+            // Checked after registering, so that either this or the reader observes a concurrent failure
+            if (failure != null) {
+                pending.remove(id);
+                throw new IOException("Formatter server connection failed", failure);
+            }
+            requestLock.lock();
+            try {
+                requests.writeInt(id);
+                WorkerProtocol.writeString(requests, className);
+                WorkerProtocol.writeString(requests, unformattedSource);
+                requests.flush();
+            } catch (IOException e) {
+                pending.remove(id);
+                fail(e);
+                throw e;
+            } finally {
+                requestLock.unlock();
+            }
+            try {
+                return response.get();
+            } catch (InterruptedException e) {
+                pending.remove(id);
+                Thread.currentThread().interrupt();
+                throw new GoetheException("Interrupted while waiting for the formatter server", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof GoetheException) {
+                    throw (GoetheException) e.getCause();
+                }
+                throw new IOException("Formatter server connection failed", e.getCause());
+            }
+        }
+
+        private void readResponses() {
+            try {
+                while (true) {
+                    int id = responses.readInt();
+                    byte status = responses.readByte();
+                    String payload = WorkerProtocol.readString(responses);
+                    CompletableFuture<String> response = pending.remove(id);
+                    if (response == null) {
+                        // The caller was interrupted
+                        continue;
+                    }
+                    if (status == WorkerProtocol.STATUS_SUCCESS) {
+                        response.complete(payload);
+                    } else {
+                        response.completeExceptionally(new GoetheException(payload));
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(IOException cause) {
+            failure = cause;
+            pending.keySet().forEach(id -> {
+                CompletableFuture<String> response = pending.remove(id);
+                if (response != null) {
+                    response.completeExceptionally(cause);
+                }
+            });
+            close();
+        }
+
+        boolean isOpen() {
+            return failure == null && channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Closing is best effort
+            }
+        }
+    }
+}
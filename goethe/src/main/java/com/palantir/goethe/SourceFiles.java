@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** Utilities for reading and writing generated sources on disk. */
+final class SourceFiles {
+
+    // Mapping a file costs more than reading it when the file is small
+    private static final long MAPPED_COMPARISON_THRESHOLD_BYTES = 64 * 1024;
+
+    private SourceFiles() {}
+
+    /**
+     * Writes {@code content} to {@code path} unless the file already contains exactly that content, in which case
+     * it is left untouched to avoid updating the modification time and invalidating downstream work.
+     *
+     * @return {@code true} if the file was written
+     */
+    static boolean writeIfChanged(Path path, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (hasContent(path, bytes)) {
+            return false;
+        }
+        Files.write(path, bytes);
+        return true;
+    }
+
+    /**
+     * Reads a UTF-8 source directly from its channel into a buffer of its exact size. Sources aren't mapped, because a
+     * mapping is only released by garbage collection and prevents the file from being replaced on some platforms.
+     *
+     * @throws java.nio.charset.CharacterCodingException if the file isn't valid UTF-8
+     */
+    static CharBuffer read(Path path) throws IOException {
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to format: " + path);
+            }
+            bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) {
+                    // Truncated concurrently
+                    break;
+                }
+            }
+        }
+        bytes.flip();
+        return StandardCharsets.UTF_8
+                .newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(bytes);
+    }
+
+    /**
+     * Replaces {@code path} with {@code content} atomically where the file system allows, so that concurrent readers
+     * and interrupted runs never observe a partially written source.
+     */
+    static void writeAtomically(Path path, String content) throws IOException {
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temporary, content);
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static boolean hasContent(Path path, byte[] expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size != expected.length) {
+                return false;
+            }
+            if (size < MAPPED_COMPARISON_THRESHOLD_BYTES) {
+                ByteBuffer actual = ByteBuffer.allocate((int) size);
+                while (actual.hasRemaining()) {
+                    if (channel.read(actual) < 0) {
+                        // Truncated concurrently
+                        return false;
+                    }
+                }
+                return Arrays.equals(actual.array(), expected);
+            }
+            MappedByteBuffer actual = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return actual.equals(ByteBuffer.wrap(expected));
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link FormatterFacade} which formats very large sources in parallel, by {@link TypeBody splitting} the members
+ * of the top-level type into chunks which are each formatted in a unit with the type declaration. Members are
+ * indented identically because they're formatted at the same depth, and each chunk also includes the member
+ * preceding it so that blank lines between chunks match formatting the whole source.
+ *
+ * <p>Sources are formatted whole when they're below {@code minChars}, can't be split unambiguously, are dominated by
+ * the type declaration (for example enum constants, which are laid out together), or when any chunk fails to format
+ * or produces output which doesn't correspond to its input, in which case failures are reported for the whole
+ * source.
+ */
+final class SplittingFormatterFacade implements FormatterFacade {
+
+    static final String MIN_CHARS_PROPERTY = "goethe.split.minChars";
+    static final long DEFAULT_MIN_CHARS = 256 * 1024;
+
+    // Each chunk repeats the type declaration and a preceding member, smaller chunks don't amortize that
+    private static final long MIN_CHUNK_CHARS = 16 * 1024;
+
+    private final FormatterFacade delegate;
+    private final long minChars;
+    private final int parallelism;
+    private final Executor executor;
+    private final AtomicLong splitFormats = new AtomicLong();
+
+    SplittingFormatterFacade(FormatterFacade delegate, long minChars, int parallelism, Executor executor) {
+        Preconditions.checkArgument(minChars > 0, "minChars must be positive: %s", minChars);
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive: %s", parallelism);
+        this.delegate = delegate;
+        this.minChars = minChars;
+        this.parallelism = parallelism;
+        this.executor = executor;
+    }
+
+    @Override
+    public String formatSource(String className, CharSequence unformattedSource) throws GoetheException {
+        if (unformattedSource.length() < minChars) {
+            return delegate.formatSource(className, unformattedSource);
+        }
+        String source = unformattedSource.toString();
+        Optional<TypeBody> body = TypeBody.parse(source);
+        if (body.isPresent() && body.get().header().length() < source.length() / 2) {
+            List<List<Integer>> chunks = chunks(body.get().members());
+            if (chunks.size() > 1) {
+                Optional<String> formatted = formatChunks(className, body.get(), chunks);
+                if (formatted.isPresent()) {
+                    splitFormats.incrementAndGet();
+                    return formatted.get();
+                }
+            }
+        }
+        return delegate.formatSource(className, source);
+    }
+
+    /** Partitions members into contiguous chunks of similar size. */
+    private List<List<Integer>> chunks(List<String> members) {
+        long memberChars = members.stream().mapToLong(String::length).sum();
+        long count = Math.min(Math.min(parallelism, members.size()), memberChars / MIN_CHUNK_CHARS);
+        List<List<Integer>> chunks = new ArrayList<>();
+        if (count < 2) {
+            return chunks;
+        }
+        long targetChars = memberChars / count;
+        List<Integer> chunk = new ArrayList<>();
+        long chunkChars = 0;
+        for (int index = 0; index < members.size(); index++) {
+            chunk.add(index);
+            chunkChars += members.get(index).length();
+            if (chunkChars >= targetChars && chunks.size() < count - 1) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkChars = 0;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private Optional<String> formatChunks(String className, TypeBody body, List<List<Integer>> chunks) {
+        List<CompletableFuture<Optional<TypeBody.FormattedMembers>>> futures = new ArrayList<>(chunks.size());
+        for (List<Integer> chunk : chunks.subList(1, chunks.size())) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> body.formatMembers(delegate, className, chunk), executor));
+        }
+        List<TypeBody.FormattedMembers> results = new ArrayList<>(chunks.size());
+        try {
+            // The calling thread would otherwise be idle
+            Optional<TypeBody.FormattedMembers> first = body.formatMembers(delegate, className, chunks.get(0));
+            if (first.isEmpty()) {
+                return Optional.empty();
+            }
+            results.add(first.get());
+            for (CompletableFuture<Optional<TypeBody.FormattedMembers>> future : futures) {
+                Optional<TypeBody.FormattedMembers> result = future.join();
+                if (result.isEmpty()
+                        || !result.get().header().equals(first.get().header())
+                        || !result.get().footer().equals(first.get().footer())) {
+                    return Optional.empty();
+                }
+                results.add(result.get());
+            }
+        } catch (GoetheException | CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            Throwable failure = e instanceof CompletionException ? e.getCause() : e;
+            if (failure instanceof GoetheException && ((GoetheException) failure).isDeadlineExceeded()) {
+                throw (GoetheException) failure;
+            }
+            // Diagnostics are reported against the whole source instead
+            return Optional.empty();
+        }
+        StringBuilder output = new StringBuilder(results.get(0).header());
+        // Chunks and their members are both in source order
+        for (TypeBody.FormattedMembers result : results) {
+            result.members().values().forEach(output::append);
+        }
+        return Optional.of(output.append(results.get(0).footer()).toString());
+    }
+
+    @Override
+    public FormatCacheStats cacheStats() {
+        return delegate.cacheStats();
+    }
+
+    /** Number of sources which were formatted in parallel chunks. */
+    @VisibleForTesting
+    long splitFormats() {
+        return splitFormats.get();
+    }
+}
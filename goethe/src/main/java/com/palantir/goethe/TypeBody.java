@@ -0,0 +1,319 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A compilation unit split into the members of its single top-level type, which allows members to be formatted
+ * separately and reassembled. Splitting relies on the layout of javapoet output and is only attempted when it is
+ * unambiguous: one top-level type, and each member ending on its own line. The enum constants of an enum are part
+ * of the {@link #header()}.
+ *
+ * <p>Each member includes the blank lines and comments which precede it, so concatenating the header, members and
+ * footer reproduces the source exactly.
+ */
+final class TypeBody {
+
+    private final String header;
+    private final ImmutableList<String> members;
+    private final String footer;
+
+    private TypeBody(String header, ImmutableList<String> members, String footer) {
+        this.header = header;
+        this.members = members;
+        this.footer = footer;
+    }
+
+    /** Everything up to the line which opens the body of the type, including enum constants. */
+    String header() {
+        return header;
+    }
+
+    List<String> members() {
+        return members;
+    }
+
+    /** The line which closes the body of the type, and anything after it. */
+    String footer() {
+        return footer;
+    }
+
+    /** Splits {@code source}, or returns empty if its members can't be identified unambiguously. */
+    static Optional<TypeBody> parse(String source) {
+        return new Scanner(source).scan();
+    }
+
+    /**
+     * Formats the members at {@code indices} in a compilation unit with the same header and footer. Blank lines
+     * before a member depend on the member which precedes it, so each member is formatted after its predecessor,
+     * whose own formatted text is discarded.
+     *
+     * @return formatted members keyed by index, or empty if the formatted unit couldn't be split
+     */
+    Optional<FormattedMembers> formatMembers(FormatterFacade formatter, String className, Collection<Integer> indices) {
+        SortedSet<Integer> included = new TreeSet<>();
+        for (int index : indices) {
+            included.add(index);
+            if (index > 0) {
+                included.add(index - 1);
+            }
+        }
+        StringBuilder unit = new StringBuilder(header);
+        included.forEach(index -> unit.append(members.get(index)));
+        unit.append(footer);
+        Optional<TypeBody> formatted = parse(formatter.formatSource(className, unit));
+        if (formatted.isEmpty() || formatted.get().members.size() != included.size()) {
+            return Optional.empty();
+        }
+        ImmutableMap.Builder<Integer, String> result = ImmutableMap.builder();
+        int position = 0;
+        for (int index : included) {
+            if (indices.contains(index)) {
+                result.put(index, formatted.get().members.get(position));
+            }
+            position++;
+        }
+        return Optional.of(new FormattedMembers(formatted.get().header, result.build(), formatted.get().footer));
+    }
+
+    /** Result of {@link #formatMembers}. */
+    static final class FormattedMembers {
+        private final String header;
+        private final ImmutableMap<Integer, String> members;
+        private final String footer;
+
+        private FormattedMembers(String header, ImmutableMap<Integer, String> members, String footer) {
+            this.header = header;
+            this.members = members;
+            this.footer = footer;
+        }
+
+        String header() {
+            return header;
+        }
+
+        /** Formatted members keyed by their index in the unformatted {@link TypeBody}. */
+        ImmutableMap<Integer, String> members() {
+            return members;
+        }
+
+        String footer() {
+            return footer;
+        }
+    }
+
+    /** Tracks nesting outside of comments and literals, which is sufficient to find member boundaries. */
+    private static final class Scanner {
+        private final String source;
+        private final List<String> members = new ArrayList<>();
+        private int position;
+        private int braceDepth;
+        private int parenDepth;
+        private boolean isEnum;
+        private boolean inEnumConstants;
+        private int bodyStart = -1;
+        private int memberStart = -1;
+        private boolean memberHasCode;
+        private boolean memberHasInitializer;
+
+        Scanner(String source) {
+            this.source = source;
+        }
+
+        Optional<TypeBody> scan() {
+            while (position < source.length()) {
+                char current = source.charAt(position);
+                if (current == '/' && startsWith("//")) {
+                    position = lineEnd(position);
+                } else if (current == '/' && startsWith("/*")) {
+                    int end = source.indexOf("*/", position + 2);
+                    if (end < 0) {
+                        return Optional.empty();
+                    }
+                    position = end + 2;
+                } else if (current == '"' || current == '\'') {
+                    memberHasCode = true;
+                    if (!skipLiteral(current)) {
+                        return Optional.empty();
+                    }
+                } else if (Character.isJavaIdentifierStart(current)) {
+                    int end = position + 1;
+                    while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) {
+                        end++;
+                    }
+                    if (bodyStart < 0 && parenDepth == 0 && source.substring(position, end).equals("enum")) {
+                        isEnum = true;
+                    }
+                    memberHasCode = true;
+                    position = end;
+                } else {
+                    Optional<Optional<TypeBody>> result = punctuation(current);
+                    if (result.isPresent()) {
+                        return result.get();
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+
+        /** Handles a single character, returning a result once the end of the type has been reached. */
+        @SuppressWarnings("checkstyle:CyclomaticComplexity")
+        private Optional<Optional<TypeBody>> punctuation(char current) {
+            int at = position++;
+            switch (current) {
+                case '(':
+                    parenDepth++;
+                    break;
+                case ')':
+                    parenDepth--;
+                    break;
+                case '{':
+                    braceDepth++;
+                    if (braceDepth == 1 && parenDepth == 0 && bodyStart < 0) {
+                        if (!endLine(at)) {
+                            return Optional.of(Optional.empty());
+                        }
+                        bodyStart = position;
+                        inEnumConstants = isEnum;
+                        startMember();
+                    }
+                    break;
+                case '}':
+                    braceDepth--;
+                    if (braceDepth == 0 && bodyStart >= 0) {
+                        return Optional.of(finish(at));
+                    }
+                    if (braceDepth == 1 && parenDepth == 0 && !inEnumConstants && !memberHasInitializer) {
+                        return endMember(at);
+                    }
+                    break;
+                case ';':
+                    if (braceDepth == 1 && parenDepth == 0) {
+                        if (inEnumConstants) {
+                            if (!endLine(at)) {
+                                return Optional.of(Optional.empty());
+                            }
+                            inEnumConstants = false;
+                            bodyStart = position;
+                            startMember();
+                            return Optional.empty();
+                        }
+                        return endMember(at);
+                    }
+                    break;
+                case '=':
+                    if (braceDepth == 1 && parenDepth == 0) {
+                        memberHasInitializer = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (!Character.isWhitespace(current)) {
+                memberHasCode = true;
+            }
+            return Optional.empty();
+        }
+
+        private Optional<Optional<TypeBody>> endMember(int terminator) {
+            if (!memberHasCode || !endLine(terminator)) {
+                return Optional.of(Optional.empty());
+            }
+            members.add(source.substring(memberStart, position));
+            startMember();
+            return Optional.empty();
+        }
+
+        private void startMember() {
+            memberStart = position;
+            memberHasCode = false;
+            memberHasInitializer = false;
+        }
+
+        private Optional<TypeBody> finish(int closingBrace) {
+            int footerStart = source.lastIndexOf('\n', closingBrace) + 1;
+            if (inEnumConstants
+                    || footerStart < memberStart
+                    || !source.substring(memberStart, closingBrace).isBlank()
+                    || !source.substring(closingBrace + 1).isBlank()) {
+                return Optional.empty();
+            }
+            return Optional.of(new TypeBody(
+                    source.substring(0, bodyStart), ImmutableList.copyOf(members), source.substring(footerStart)));
+        }
+
+        /** Moves past the end of the line containing {@code index}, which must not contain further code. */
+        private boolean endLine(int index) {
+            int end = lineEnd(index);
+            String rest = source.substring(index + 1, end).strip();
+            if (!rest.isEmpty() && !(rest.startsWith("//") || (rest.startsWith("/*") && rest.endsWith("*/")))) {
+                return false;
+            }
+            position = Math.min(source.length(), end + 1);
+            return true;
+        }
+
+        private boolean skipLiteral(char quote) {
+            if (quote == '"' && startsWith("\"\"\"")) {
+                int index = position + 3;
+                while (index < source.length()) {
+                    if (source.charAt(index) == '\\') {
+                        index += 2;
+                    } else if (source.startsWith("\"\"\"", index)) {
+                        position = index + 3;
+                        return true;
+                    } else {
+                        index++;
+                    }
+                }
+                return false;
+            }
+            int index = position + 1;
+            while (index < source.length()) {
+                char current = source.charAt(index);
+                if (current == '\\') {
+                    index += 2;
+                } else if (current == quote) {
+                    position = index + 1;
+                    return true;
+                } else if (current == '\n') {
+                    return false;
+                } else {
+                    index++;
+                }
+            }
+            return false;
+        }
+
+        private boolean startsWith(String prefix) {
+            return source.startsWith(prefix, position);
+        }
+
+        private int lineEnd(int index) {
+            int end = source.indexOf('\n', index);
+            return end < 0 ? source.length() : end;
+        }
+    }
+}
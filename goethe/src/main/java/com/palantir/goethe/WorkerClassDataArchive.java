@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A dynamic class data sharing archive for {@link FormatterWorker} processes, which most of their startup would
+ * otherwise spend loading and verifying javac and formatter classes from the Goethe jar.
+ *
+ * <p>The archive is keyed by the jdk and the identity of the Goethe jar, so that an upgrade of either uses a new
+ * archive rather than one the jvm would reject. When no archive exists, a single training worker is started in the
+ * background with {@code -XX:ArchiveClassesAtExit}, formats a representative source, and exits, after which its
+ * archive is atomically moved into place for subsequent workers. Workers started before then launch without an
+ * archive. Archives are stored in {@code goethe.bootstrap.cdsDirectory}, which defaults to a per-user cache
+ * directory, and may be disabled by setting {@code goethe.bootstrap.cds} to {@code false}.
+ */
+final class WorkerClassDataArchive {
+
+    static final String ENABLED_PROPERTY = "goethe.bootstrap.cds";
+    static final String DIRECTORY_PROPERTY = "goethe.bootstrap.cdsDirectory";
+
+    static final String TRAINING_CLASS_NAME = "com.palantir.goethe.training.Training";
+
+    /**
+     * Exercises parsing, import ordering, and javadoc formatting so their classes are archived, and so that
+     * {@link GoetheFormatter#prewarm()} warms up the code formatting real sources uses.
+     */
+    static final String TRAINING_SOURCE = "package com.palantir.goethe.training;\n"
+            + "import java.util.List;\nimport java.util.Map;\nimport java.util.function.Function;\n"
+            + "/** Training source used to record the classes loaded while formatting, which are then archived so that"
+            + " later formatter processes start faster. {@code code} and <b>markup</b> are reflowed. */\n"
+            + "public final class Training<T extends Comparable<T>> implements Function<List<T>, Map<String, T>> {\n"
+            + "private static final long serialVersionUID = 1L;\n"
+            + "@Override public Map<String, T> apply(List<T> values) {"
+            + " return values.stream().filter(value -> value != null).sorted()"
+            + ".collect(java.util.stream.Collectors.toMap(Object::toString, value -> value,"
+            + " (first, second) -> first)); }\n"
+            + "enum Kind { FIRST, SECOND }\n"
+            + "record Pair(String left, int right) {}\n"
+            + "}\n";
+
+    private static final AtomicBoolean TRAINING_STARTED = new AtomicBoolean();
+
+    private WorkerClassDataArchive() {}
+
+    /** Returns the arguments which let a new worker use the archive, starting training if it doesn't exist yet. */
+    static List<String> jvmArgs() {
+        Optional<Path> archive = archivePath();
+        if (archive.isEmpty()) {
+            return ImmutableList.of();
+        }
+        if (Files.isRegularFile(archive.get())) {
+            return ImmutableList.of("-XX:SharedArchiveFile=" + archive.get());
+        }
+        if (TRAINING_STARTED.compareAndSet(false, true)) {
+            train(archive.get());
+        }
+        return ImmutableList.of();
+    }
+
+    /** Location of the archive for the current jdk and Goethe jar, or empty if archiving is disabled. */
+    @VisibleForTesting
+    static Optional<Path> archivePath() {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return Optional.empty();
+        }
+        Path jar = Paths.get(FormatterWorker.getClasspath());
+        try {
+            // Dynamic archives only contain classes loaded from jars
+            if (!Files.isRegularFile(jar)) {
+                return Optional.empty();
+            }
+            return Optional.of(directory().resolve("worker-" + FormatterWorker.installationHasher().hash() + ".jsa"));
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Path directory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null) {
+            return Paths.get(directory).toAbsolutePath();
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "goethe", "cds");
+    }
+
+    private static void train(Path archive) {
+        Path temporary = archive.resolveSibling(archive.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try {
+            Files.createDirectories(archive.getParent());
+            Process process = new ProcessBuilder(
+                            FormatterWorker.command(ImmutableList.<String>builder()
+                                    .addAll(WorkerJvmOptions.fromSystemProperties()
+                                            .jvmArgs(TRAINING_SOURCE.length()))
+                                    .add("-XX:ArchiveClassesAtExit=" + temporary)
+                                    .build(),
+                            FormatterOptions.DEFAULT))
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            process.onExit().thenRun(() -> install(process, temporary, archive));
+            // A single request followed by end of input, after which the worker exits and writes the archive
+            try (DataOutputStream requests =
+                    new DataOutputStream(new BufferedOutputStream(process.getOutputStream()))) {
+                WorkerProtocol.writeString(requests, TRAINING_CLASS_NAME);
+                WorkerProtocol.writeString(requests, TRAINING_SOURCE);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Archiving is an optimization, workers start without it
+        }
+    }
+
+    private static void install(Process process, Path temporary, Path archive) {
+        try {
+            if (process.exitValue() == 0 && Files.isRegularFile(temporary)) {
+                try {
+                    Files.move(temporary, archive, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            // Another process may have installed an archive concurrently
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                // Best effort
+            }
+        }
+    }
+}
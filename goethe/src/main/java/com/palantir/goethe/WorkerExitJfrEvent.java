@@ -0,0 +1,51 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Flight recorder event emitted when a {@link FormatterWorker} is discarded. */
+@Name("com.palantir.goethe.WorkerExit")
+@Label("Formatter Worker Exit")
+@Category("Goethe")
+@Description("Termination of a child jvm used to format sources")
+@StackTrace(false)
+final class WorkerExitJfrEvent extends jdk.jfr.Event {
+
+    @Label("Process Id")
+    long pid;
+
+    @Label("Files Formatted")
+    int filesFormatted;
+
+    @Label("Uptime")
+    @Timespan(Timespan.NANOSECONDS)
+    long uptime;
+
+    @Label("Exited Unexpectedly")
+    @Description("True if the process had already exited before it was discarded, for example due to a crash")
+    boolean unexpected;
+
+    @Label("Exit Code")
+    @Description("Exit code of a process which exited unexpectedly, otherwise -1")
+    int exitCode;
+}
@@ -0,0 +1,182 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * Jvm options for the child processes used to format when the current jvm cannot format in-process.
+ *
+ * <p>By default children are tuned for a small, short-lived formatter rather than inheriting the jvm defaults, which
+ * size the heap and jit from the whole machine: the serial collector, a heap bounded by the size of the source which
+ * caused the child to start, and a limited number of jit compiler threads. Additional arguments are applied after
+ * the tuned defaults, so they may override individual options such as {@code -Xmx} or the collector.
+ *
+ * <p>The default options for the static {@link Goethe} methods are read from system properties:
+ * {@code goethe.bootstrap.jvmArgs} is a whitespace separated list of additional arguments, and
+ * {@code goethe.bootstrap.jvmTuning} may be set to {@code false} to disable the tuned defaults.
+ */
+public final class WorkerJvmOptions {
+
+    static final String JVM_ARGS_PROPERTY = "goethe.bootstrap.jvmArgs";
+    static final String TUNING_PROPERTY = "goethe.bootstrap.jvmTuning";
+
+    /** Heap size used when the size of the first source isn't known or is small. */
+    static final long MIN_HEAP_BYTES = 256L * 1024 * 1024;
+
+    static final long MAX_HEAP_BYTES = 4L * 1024 * 1024 * 1024;
+
+    /** Approximate peak heap required per source character, dominated by the javac tree and layout documents. */
+    private static final long HEAP_BYTES_PER_INPUT_CHAR = 512;
+
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private static final WorkerJvmOptions DEFAULTS = builder().build();
+
+    private final boolean tuned;
+    private final long maxHeapBytes;
+    private final ImmutableList<String> jvmArgs;
+
+    private WorkerJvmOptions(boolean tuned, long maxHeapBytes, ImmutableList<String> jvmArgs) {
+        this.tuned = tuned;
+        this.maxHeapBytes = maxHeapBytes;
+        this.jvmArgs = jvmArgs;
+    }
+
+    /** Tuned defaults without additional arguments. */
+    public static WorkerJvmOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static WorkerJvmOptions fromSystemProperties() {
+        String jvmArgs = System.getProperty(JVM_ARGS_PROPERTY, "");
+        boolean tuned = Boolean.parseBoolean(System.getProperty(TUNING_PROPERTY, "true"));
+        if (tuned && jvmArgs.isBlank()) {
+            return DEFAULTS;
+        }
+        return builder()
+                .tuned(tuned)
+                .addJvmArgs(Splitter.onPattern("\\s+").omitEmptyStrings().split(jvmArgs))
+                .build();
+    }
+
+    /**
+     * Heap a child started to format a source of {@code inputChars} characters may use, or {@link Long#MAX_VALUE}
+     * if the heap isn't bounded by these options.
+     */
+    long heapBytes(long inputChars) {
+        if (maxHeapBytes > 0) {
+            return maxHeapBytes;
+        }
+        if (!tuned || hasArgument("-Xmx") || hasArgument("-XX:MaxHeapSize=")) {
+            return UNBOUNDED;
+        }
+        long required = Math.max(MIN_HEAP_BYTES, inputChars * HEAP_BYTES_PER_INPUT_CHAR);
+        // Round up to a power of two so that children started for similarly sized sources are interchangeable
+        return Math.min(MAX_HEAP_BYTES, Long.highestOneBit(required - 1) << 1);
+    }
+
+    /** Arguments for a child started to format a source of {@code inputChars} characters. */
+    List<String> jvmArgs(long inputChars) {
+        ImmutableList.Builder<String> result = ImmutableList.builder();
+        if (tuned) {
+            // Collectors are mutually exclusive, a collector selected explicitly replaces the default
+            if (jvmArgs.stream().noneMatch(argument -> argument.startsWith("-XX:+Use") && argument.endsWith("GC"))) {
+                result.add("-XX:+UseSerialGC");
+            }
+            result.add(
+                    // Formatting a single source doesn't benefit from the machine-sized compiler thread count
+                    "-XX:CICompilerCount=2",
+                    "-XX:-UsePerfData",
+                    "-Xms32m");
+        }
+        long heapBytes = heapBytes(inputChars);
+        if (heapBytes != UNBOUNDED) {
+            result.add("-Xmx" + (heapBytes / 1024 / 1024) + 'm');
+        }
+        return result.addAll(jvmArgs).build();
+    }
+
+    /**
+     * Arguments for a {@link FormatterServer}, which is long-lived and formats sources of any size concurrently, so
+     * keeps the default collector and jit. The heap is bounded by the largest heap a child would be given.
+     */
+    List<String> serverJvmArgs() {
+        ImmutableList.Builder<String> result = ImmutableList.builder();
+        if (tuned) {
+            result.add("-XX:-UsePerfData", "-Xms32m");
+        }
+        if (heapBytes(0) != UNBOUNDED) {
+            long heapBytes = maxHeapBytes > 0 ? maxHeapBytes : MAX_HEAP_BYTES;
+            result.add("-Xmx" + (heapBytes / 1024 / 1024) + 'm');
+        }
+        return result.addAll(jvmArgs).build();
+    }
+
+    private boolean hasArgument(String prefix) {
+        return jvmArgs.stream().anyMatch(argument -> argument.startsWith(prefix));
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerJvmOptions{tuned=" + tuned + ", maxHeapBytes=" + maxHeapBytes + ", jvmArgs=" + jvmArgs + '}';
+    }
+
+    public static final class Builder {
+        private boolean tuned = true;
+        private long maxHeapBytes;
+        private final ImmutableList.Builder<String> jvmArgs = ImmutableList.builder();
+
+        private Builder() {}
+
+        /** Whether the tuned defaults are applied, {@code true} by default. */
+        public Builder tuned(boolean value) {
+            this.tuned = value;
+            return this;
+        }
+
+        /** Fixes the heap of every child rather than scaling it to the source which caused the child to start. */
+        public Builder maxHeapBytes(long value) {
+            Preconditions.checkArgument(value > 0, "maxHeapBytes must be positive: %s", value);
+            this.maxHeapBytes = value;
+            return this;
+        }
+
+        /** Adds arguments which are passed to every child after the tuned defaults. */
+        public Builder addJvmArgs(String... values) {
+            jvmArgs.add(values);
+            return this;
+        }
+
+        /** Adds arguments which are passed to every child after the tuned defaults. */
+        public Builder addJvmArgs(Iterable<String> values) {
+            jvmArgs.addAll(values);
+            return this;
+        }
+
+        public WorkerJvmOptions build() {
+            return new WorkerJvmOptions(tuned, maxHeapBytes, jvmArgs.build());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.base.Utf8;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Framing shared by {@link FormatterWorker} and {@link GoetheMain} when running in worker mode. Requests are a
+ * length-prefixed class name followed by a length-prefixed source, responses are a single status byte followed by
+ * either the length-prefixed formatted source or a length-prefixed diagnostic message, and finally a trailer of the
+ * heap bytes the worker has in use, which allows bloated workers to be recycled, followed by the total CPU time
+ * consumed by the worker and its peak resident set size, each of which is {@link WorkerStats#UNKNOWN} if
+ * unavailable.
+ */
+final class WorkerProtocol {
+
+    /** Argument which instructs {@link GoetheMain} to serve requests until stdin is closed. */
+    static final String WORKER_FLAG = "--worker";
+
+    static final byte STATUS_SUCCESS = 0;
+    static final byte STATUS_FAILURE = 1;
+
+    private static final int CHUNK_CHARS = 8192;
+
+    /** Encodes {@code value} directly into {@code output}, without buffering the entire encoded form. */
+    static void writeString(DataOutputStream output, CharSequence value) throws IOException {
+        int length;
+        try {
+            length = Utf8.encodedLength(value);
+        } catch (IllegalArgumentException e) {
+            // Unpaired surrogates are replaced when encoded, so the length must be measured by encoding
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+            return;
+        }
+        output.writeInt(length);
+        // The writer must not be closed, which would close the underlying stream
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        for (int start = 0; start < value.length(); start += CHUNK_CHARS) {
+            writer.append(value, start, Math.min(value.length(), start + CHUNK_CHARS));
+        }
+        writer.flush();
+    }
+
+    static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Decodes a string frame directly into {@code output}, without buffering the entire decoded form. */
+    static void readString(DataInputStream input, Writer output) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        // The reader must not be closed, which would close the underlying stream
+        Reader reader = new InputStreamReader(ByteStreams.limit(input, length), StandardCharsets.UTF_8);
+        CharStreams.copy(reader, output);
+    }
+
+    private WorkerProtocol() {}
+}
@@ -0,0 +1,37 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight recorder event covering the launch of a {@link FormatterWorker} process. */
+@Name("com.palantir.goethe.WorkerSpawn")
+@Label("Formatter Worker Spawn")
+@Category("Goethe")
+@Description("Launch of a child jvm used to format sources when the required exports are missing")
+final class WorkerSpawnJfrEvent extends jdk.jfr.Event {
+
+    @Label("Process Id")
+    long pid;
+
+    @Label("Recording")
+    @Description("Flight recording file written by the child process, if any")
+    String recording;
+}
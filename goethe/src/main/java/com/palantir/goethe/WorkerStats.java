@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resource usage of a {@link FormatterWorker} process. Workers measure themselves after each request and append the
+ * measurements to their response, the parent records them against the calling thread so the outermost facade can
+ * attach them to its {@link FormatEvent}.
+ */
+final class WorkerStats {
+
+    static final long UNKNOWN = -1;
+
+    private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+    private static final String PEAK_RSS_PREFIX = "VmHWM:";
+    private static final ThreadLocal<WorkerStats> LAST = new ThreadLocal<>();
+
+    private final long cpuTimeNanos;
+    private final long peakRssBytes;
+
+    private WorkerStats(long cpuTimeNanos, long peakRssBytes) {
+        this.cpuTimeNanos = cpuTimeNanos;
+        this.peakRssBytes = peakRssBytes;
+    }
+
+    /** CPU time consumed by the worker while serving the request, or {@link #UNKNOWN}. */
+    long cpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+
+    /** Peak resident set size of the worker, or {@link #UNKNOWN}. */
+    long peakRssBytes() {
+        return peakRssBytes;
+    }
+
+    static void record(long cpuTimeNanos, long peakRssBytes) {
+        LAST.set(new WorkerStats(cpuTimeNanos, peakRssBytes));
+    }
+
+    /** Returns and clears stats recorded by the current thread, or null if no worker served its latest request. */
+    static WorkerStats takeLast() {
+        WorkerStats stats = LAST.get();
+        if (stats != null) {
+            LAST.remove();
+        }
+        return stats;
+    }
+
+    /** Total CPU time consumed by the current process, or {@link #UNKNOWN} if the platform doesn't report it. */
+    static long currentProcessCpuTimeNanos() {
+        return ProcessHandle.current()
+                .info()
+                .totalCpuDuration()
+                .map(Duration::toNanos)
+                .orElse(UNKNOWN);
+    }
+
+    /**
+     * Peak resident set size of the current process. {@link ProcessHandle} doesn't expose memory usage, so this is
+     * read from procfs, and is {@link #UNKNOWN} on other platforms.
+     */
+    static long currentProcessPeakRssBytes() {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return UNKNOWN;
+        }
+        try {
+            List<String> lines = Files.readAllLines(PROC_STATUS, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.startsWith(PEAK_RSS_PREFIX)) {
+                    // Formatted as "VmHWM:     123456 kB"
+                    String value = line.substring(PEAK_RSS_PREFIX.length()).trim();
+                    int unit = value.indexOf(' ');
+                    return Long.parseLong(unit < 0 ? value : value.substring(0, unit)) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unexpected format, treat as unavailable
+        }
+        return UNKNOWN;
+    }
+}
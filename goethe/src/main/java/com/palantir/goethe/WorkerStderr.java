@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Drains the stderr of a {@link FormatterWorker} on a daemon thread, so a worker which writes a lot to stderr, for
+ * example large diagnostics or verbose jvm logging, never blocks on a full pipe. Only the most recent
+ * {@code maxBytes} are retained, which are used to describe worker failures.
+ */
+final class WorkerStderr {
+
+    static final String MAX_BYTES_PROPERTY = "goethe.bootstrap.stderrMaxBytes";
+    static final int DEFAULT_MAX_BYTES = 64 * 1024;
+
+    private static final int READ_BUFFER_BYTES = 8192;
+
+    private final int maxBytes;
+    private final Thread pump;
+
+    // Guarded by 'this'. Allocated on first write because most workers never write to stderr.
+    private byte[] retained;
+    private int nextIndex;
+    private long totalBytes;
+
+    @VisibleForTesting
+    WorkerStderr(InputStream stderr, String name, int maxBytes) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive: %s", maxBytes);
+        this.maxBytes = maxBytes;
+        this.pump = new Thread(() -> drain(stderr), name);
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    /** Starts draining the stderr of {@code process}, retaining up to {@link #MAX_BYTES_PROPERTY} bytes. */
+    static WorkerStderr drain(Process process) {
+        return new WorkerStderr(
+                process.getErrorStream(),
+                "goethe-worker-stderr-" + process.pid(),
+                Integer.getInteger(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    private void drain(InputStream stderr) {
+        byte[] buffer = new byte[READ_BUFFER_BYTES];
+        try (stderr) {
+            int read;
+            while ((read = stderr.read(buffer)) != -1) {
+                append(buffer, read);
+            }
+        } catch (IOException ignored) {
+            // The process has been destroyed, nothing further can be read
+        }
+    }
+
+    private synchronized void append(byte[] buffer, int length) {
+        if (retained == null) {
+            retained = new byte[maxBytes];
+        }
+        totalBytes += length;
+        // Only the end of a read larger than the buffer can be retained
+        int offset = Math.max(0, length - maxBytes);
+        int remaining = length - offset;
+        while (remaining > 0) {
+            int count = Math.min(remaining, maxBytes - nextIndex);
+            System.arraycopy(buffer, offset, retained, nextIndex, count);
+            nextIndex = (nextIndex + count) % maxBytes;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+    /** Waits up to {@code timeout} for the stream to be closed and everything written to it to be retained. */
+    void awaitDrained(Duration timeout) throws InterruptedException {
+        pump.join(timeout.toMillis());
+    }
+
+    /** Returns the retained output, preceded by a note of how much earlier output was discarded. */
+    synchronized String tail() {
+        if (totalBytes <= maxBytes) {
+            return new String(retained == null ? new byte[0] : retained, 0, (int) totalBytes, StandardCharsets.UTF_8);
+        }
+        byte[] ordered = new byte[maxBytes];
+        System.arraycopy(retained, nextIndex, ordered, 0, maxBytes - nextIndex);
+        System.arraycopy(retained, 0, ordered, maxBytes - nextIndex, nextIndex);
+        return "[" + (totalBytes - maxBytes) + " earlier bytes discarded]\n"
+                + new String(ordered, StandardCharsets.UTF_8);
+    }
+
+    /** Total bytes written to stderr, including those which were discarded. */
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CachingFormatterFacadeTest {
+
+    private final AtomicInteger formatCalls = new AtomicInteger();
+    private final FormatterFacade counting = (className, unformattedSource) -> {
+        formatCalls.incrementAndGet();
+        if (unformattedSource.toString().contains("oops")) {
+            throw new GoetheException("Failed to format '" + className + "'");
+        }
+        return unformattedSource.toString().toUpperCase();
+    };
+
+    @Test
+    public void testCachesFormattedOutput() {
+        CachingFormatterFacade facade = new CachingFormatterFacade(counting, "options", 1024 * 1024);
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(facade.formatSource("Bar", "class Bar {}")).isEqualTo("CLASS BAR {}");
+        assertThat(formatCalls).hasValue(2);
+        FormatCacheStats stats = facade.cacheStats();
+        assertThat(stats.hitCount()).isOne();
+        assertThat(stats.missCount()).isEqualTo(2);
+        assertThat(stats.entryCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testOptionsArePartOfTheKey() {
+        CachingFormatterFacade first = new CachingFormatterFacade(counting, "first", 1024 * 1024);
+        CachingFormatterFacade second = new CachingFormatterFacade(counting, "second", 1024 * 1024);
+        first.formatSource("Foo", "class Foo {}");
+        second.formatSource("Foo", "class Foo {}");
+        assertThat(formatCalls).hasValue(2);
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        CachingFormatterFacade facade = new CachingFormatterFacade(counting, "options", 1024 * 1024);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> facade.formatSource("Foo", "oops"))
+                    .isInstanceOf(GoetheException.class)
+                    .hasMessage("Failed to format 'Foo'");
+        }
+        assertThat(formatCalls).hasValue(2);
+        assertThat(facade.cacheStats().entryCount()).isZero();
+    }
+
+    @Test
+    public void testEvictsBySize() {
+        CachingFormatterFacade facade = new CachingFormatterFacade(counting, "options", 4096);
+        for (int i = 0; i < 10; i++) {
+            facade.formatSource("Foo", "class Foo" + i + " {}" + " ".repeat(1000));
+        }
+        assertThat(facade.cacheStats().evictionCount()).isPositive();
+        assertThat(facade.cacheStats().entryCount()).isLessThan(10);
+    }
+
+    @Test
+    public void testConcurrentRequestsAreCollapsed() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FormatterFacade blocking = (className, unformattedSource) -> {
+            formatCalls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new GoetheException("interrupted", e);
+            }
+            return unformattedSource.toString();
+        };
+        CachingFormatterFacade facade = new CachingFormatterFacade(blocking, "options", 1024 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> facade.formatSource("Foo", "class Foo {}")));
+            }
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("class Foo {}");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(formatCalls).hasValue(1);
+    }
+}
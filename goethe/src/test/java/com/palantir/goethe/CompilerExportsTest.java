@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.io.ByteStreams;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CompilerExportsTest {
+
+    @Test
+    public void testExportsAtRuntime() throws Exception {
+        assertThat(runWithoutExports()).isEqualTo("exported=true, formatted=class Foo {\n    int x;\n}\n");
+    }
+
+    @Test
+    public void testInProcessFormattingMayBeDisabled() throws Exception {
+        assertThat(runWithoutExports("-D" + CompilerExports.IN_PROCESS_PROPERTY + "=false"))
+                .startsWith("exported=false");
+    }
+
+    private static String runWithoutExports(String... jvmArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath());
+        command.addAll(List.of(jvmArgs));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), InProcessMain.class.getName()));
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        String output = new String(ByteStreams.toByteArray(process.getInputStream()), StandardCharsets.UTF_8);
+        assertThat(process.waitFor(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isZero();
+        return output;
+    }
+
+    /** Runs without {@code --add-exports}, printing whether the formatter could be used in-process. */
+    @SuppressWarnings("checkstyle:BanSystemOut")
+    static final class InProcessMain {
+        public static void main(String[] args) {
+            boolean exported = CompilerExports.tryExport();
+            String formatted =
+                    exported ? new DirectFormatterFacade().formatSource("Foo", "class Foo { int x; }") : "";
+            System.out.print("exported=" + exported + ", formatted=" + formatted);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DeadlineFormatterFacadeTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReturnsResultsWithinDeadline() {
+        DeadlineFormatterFacade facade = new DeadlineFormatterFacade(
+                (className, unformattedSource) -> unformattedSource.toString().toUpperCase(),
+                Duration.ofMinutes(1),
+                executor);
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+    }
+
+    @Test
+    public void testAbandonsCallsExceedingDeadline() {
+        DeadlineFormatterFacade facade = new DeadlineFormatterFacade(
+                (className, unformattedSource) -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return unformattedSource.toString();
+                },
+                Duration.ofMillis(50),
+                executor);
+        assertThatThrownBy(() -> facade.formatSource("Foo", "class Foo {}"))
+                .isInstanceOfSatisfying(
+                        GoetheException.class,
+                        exception -> assertThat(exception.isDeadlineExceeded()).isTrue())
+                .hasMessage("Formatting 'Foo' exceeded the deadline of 50ms");
+    }
+
+    @Test
+    public void testPropagatesFailures() {
+        DeadlineFormatterFacade facade = new DeadlineFormatterFacade(
+                (className, unformattedSource) -> {
+                    throw new GoetheException("Failed to format '" + className + "'");
+                },
+                Duration.ofMinutes(1),
+                executor);
+        assertThatThrownBy(() -> facade.formatSource("Foo", "class Foo {}"))
+                .isInstanceOfSatisfying(
+                        GoetheException.class,
+                        exception -> assertThat(exception.isDeadlineExceeded()).isFalse())
+                .hasMessage("Failed to format 'Foo'");
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.TypeSpec;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+class DeferredFilerEmitterTest {
+
+    private final Filer filer = Mockito.mock(Filer.class);
+
+    @Test
+    public void testWritesInSubmissionOrderOnFlush() throws IOException {
+        List<JavaFile> files = new ArrayList<>();
+        List<Element> originatingElements = new ArrayList<>();
+        List<StringWriter> writers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Element originatingElement = Mockito.mock(Element.class);
+            files.add(JavaFile.builder(
+                            "com.palantir.foo",
+                            TypeSpec.classBuilder("Foo" + i)
+                                    .addOriginatingElement(originatingElement)
+                                    .build())
+                    .build());
+            originatingElements.add(originatingElement);
+            writers.add(expectSourceFile("com.palantir.foo.Foo" + i, originatingElement));
+        }
+
+        DeferredFilerEmitter emitter = Goethe.deferredEmitter(filer);
+        files.forEach(emitter::submit);
+        assertThat(emitter.pending()).isEqualTo(10);
+        Mockito.verifyNoInteractions(filer);
+
+        emitter.flush();
+        assertThat(emitter.pending()).isZero();
+        InOrder inOrder = inOrder(filer);
+        for (int i = 0; i < 10; i++) {
+            inOrder.verify(filer).createSourceFile(eq("com.palantir.foo.Foo" + i), eq(originatingElements.get(i)));
+            assertThat(writers.get(i).toString())
+                    .as("Expected identical output to 'formatAsString'")
+                    .isEqualTo(Goethe.formatAsString(files.get(i)));
+        }
+    }
+
+    @Test
+    public void testFailuresDoNotPreventOtherWrites() throws IOException {
+        JavaFile invalid = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Bar")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("type oops name = bar")
+                                        .build())
+                                .build())
+                .build();
+        JavaFile valid = JavaFile.builder("com.palantir.foo", TypeSpec.classBuilder("Foo").build())
+                .build();
+        StringWriter writer = expectSourceFile("com.palantir.foo.Foo");
+
+        DeferredFilerEmitter emitter = Goethe.deferredEmitter(filer);
+        emitter.submit(invalid);
+        emitter.submit(valid);
+        assertThatThrownBy(emitter::flush)
+                .isInstanceOf(GoetheException.class)
+                .hasMessageContaining("Failed to format 'com.palantir.foo.Bar'");
+        assertThat(writer.toString()).isEqualTo(Goethe.formatAsString(valid));
+        assertThat(emitter.pending()).isZero();
+    }
+
+    @Test
+    public void testWriteFailureDeletesFile() throws IOException {
+        JavaFile valid = JavaFile.builder("com.palantir.foo", TypeSpec.classBuilder("Foo").build())
+                .build();
+        JavaFileObject javaFileObject = Mockito.mock(JavaFileObject.class);
+        when(javaFileObject.openWriter()).thenReturn(new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {}
+        });
+        when(filer.createSourceFile(eq("com.palantir.foo.Foo"))).thenReturn(javaFileObject);
+
+        try (DeferredFilerEmitter emitter = Goethe.deferredEmitter(filer)) {
+            emitter.submit(valid);
+            assertThatThrownBy(emitter::flush)
+                    .isInstanceOf(GoetheException.class)
+                    .hasMessageContaining("Failed to write formatted code to the filer");
+        }
+        verify(javaFileObject).delete();
+    }
+
+    private StringWriter expectSourceFile(String className) throws IOException {
+        StringWriter writer = new StringWriter();
+        when(filer.createSourceFile(eq(className))).thenReturn(sourceFile(writer));
+        return writer;
+    }
+
+    private StringWriter expectSourceFile(String className, Element originatingElement) throws IOException {
+        StringWriter writer = new StringWriter();
+        when(filer.createSourceFile(eq(className), eq(originatingElement))).thenReturn(sourceFile(writer));
+        return writer;
+    }
+
+    private static JavaFileObject sourceFile(Writer writer) throws IOException {
+        JavaFileObject javaFileObject = Mockito.mock(JavaFileObject.class);
+        when(javaFileObject.openWriter()).thenReturn(writer);
+        return javaFileObject;
+    }
+}
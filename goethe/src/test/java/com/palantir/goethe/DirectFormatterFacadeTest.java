@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.TypeSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class DirectFormatterFacadeTest {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 25;
+
+    @Test
+    public void testConcurrentFormattingMatchesSequential() throws Exception {
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            sources.add(source(i));
+        }
+        DirectFormatterFacade sequential = new DirectFormatterFacade();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            expected.add(sequential.formatSource("com.palantir.foo.Foo" + i, sources.get(i)));
+        }
+
+        DirectFormatterFacade shared = new DirectFormatterFacade();
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                        // Line up threads so that calls overlap as much as possible
+                        barrier.await(1, TimeUnit.MINUTES);
+                        // Rotate sources so every thread formats every file
+                        int file = (index + iteration) % THREADS;
+                        assertThat(shared.formatSource("com.palantir.foo.Foo" + file, sources.get(file)))
+                                .isEqualTo(expected.get(file));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(shared.idleFormatters())
+                .as("Formatters are reused rather than retained without bound")
+                .isBetween(1, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private static String source(int index) {
+        TypeSpec.Builder type = TypeSpec.classBuilder("Foo" + index);
+        for (int method = 0; method <= index; method++) {
+            type.addMethod(MethodSpec.methodBuilder("method" + method)
+                    .addJavadoc(
+                            "Method $L of class $L, long enough that javadoc formatting has to wrap this line.",
+                            method,
+                            index)
+                    .addCode(CodeBlock.builder()
+                            .addStatement("$T.out.println($S)", System.class, "a".repeat(40 + index))
+                            .build())
+                    .build());
+        }
+        return JavaFile.builder("com.palantir.foo", type.build()).build().toString();
+    }
+}
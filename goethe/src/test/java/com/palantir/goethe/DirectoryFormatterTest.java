@@ -0,0 +1,89 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryFormatterTest {
+
+    private static final FormatterFacade UPPER_CASE = (className, unformattedSource) -> {
+        if (unformattedSource.toString().contains("oops")) {
+            throw new GoetheException("Failed to format '" + className + "'");
+        }
+        return unformattedSource.toString().toUpperCase();
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFormatsSourcesUnderRoots() throws IOException {
+        Path first = Files.createDirectories(tempDir.resolve("first/com/palantir"));
+        Path second = Files.createDirectories(tempDir.resolve("second"));
+        Files.writeString(first.resolve("Foo.java"), "class Foo {}");
+        Files.writeString(first.resolve("README.md"), "not java");
+        Files.writeString(second.resolve("Bar.java"), "class Bar {}");
+
+        DirectoryFormatter.Summary summary = new DirectoryFormatter(UPPER_CASE, 2)
+                .format(List.of(tempDir.resolve("first"), second));
+        assertThat(summary.files()).isEqualTo(2);
+        assertThat(summary.changedFiles()).isEqualTo(2);
+        assertThat(summary.failures()).isEmpty();
+        assertThat(first.resolve("Foo.java")).hasContent("CLASS FOO {}");
+        assertThat(first.resolve("README.md")).hasContent("not java");
+        assertThat(second.resolve("Bar.java")).hasContent("CLASS BAR {}");
+        assertThat(summary.toString()).startsWith("Formatted 2 files (2 changed, 0 failed)");
+    }
+
+    @Test
+    public void testLeavesFormattedSourcesUntouched() throws IOException {
+        Path source = tempDir.resolve("Foo.java");
+        Files.writeString(source, "CLASS FOO {}");
+        FileTime modified = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+        Files.setLastModifiedTime(source, modified);
+
+        DirectoryFormatter.Summary summary = new DirectoryFormatter(UPPER_CASE, 1).format(List.of(tempDir));
+        assertThat(summary.files()).isOne();
+        assertThat(summary.changedFiles()).isZero();
+        assertThat(Files.getLastModifiedTime(source)).isEqualTo(modified);
+    }
+
+    @Test
+    public void testCollectsFailures() throws IOException {
+        Files.writeString(tempDir.resolve("Bad.java"), "class oops {}");
+        Files.write(tempDir.resolve("Binary.java"), new byte[] {(byte) 0xff, (byte) 0xfe});
+        Files.writeString(tempDir.resolve("Good.java"), "class Good {}");
+
+        DirectoryFormatter.Summary summary = new DirectoryFormatter(UPPER_CASE, 2).format(List.of(tempDir));
+        assertThat(summary.files()).isEqualTo(3);
+        assertThat(summary.failures())
+                .hasSize(2)
+                .anySatisfy(failure -> assertThat(failure).contains("Failed to format 'Bad'"))
+                .anySatisfy(failure -> assertThat(failure).contains("Binary.java"));
+        assertThat(tempDir.resolve("Bad.java")).hasContent("class oops {}");
+        assertThat(tempDir.resolve("Good.java")).hasContent("CLASS GOOD {}");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskCachingFormatterFacadeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger formatCalls = new AtomicInteger();
+    private final FormatterFacade counting = (className, unformattedSource) -> {
+        formatCalls.incrementAndGet();
+        if (unformattedSource.toString().contains("oops")) {
+            throw new GoetheException("Failed to format '" + className + "'");
+        }
+        return unformattedSource.toString().toUpperCase();
+    };
+
+    @Test
+    public void testEntriesAreSharedAcrossInstances() throws IOException {
+        DiskCachingFormatterFacade first = DiskCachingFormatterFacade.open(counting, "options", tempDir, 1024 * 1024);
+        assertThat(first.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(first.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        // A second instance simulates a fresh jvm
+        DiskCachingFormatterFacade second = DiskCachingFormatterFacade.open(counting, "options", tempDir, 1024 * 1024);
+        assertThat(second.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(formatCalls).hasValue(1);
+    }
+
+    @Test
+    public void testOptionsArePartOfTheKey() throws IOException {
+        DiskCachingFormatterFacade.open(counting, "first", tempDir, 1024 * 1024).formatSource("Foo", "class Foo {}");
+        DiskCachingFormatterFacade.open(counting, "second", tempDir, 1024 * 1024).formatSource("Foo", "class Foo {}");
+        assertThat(formatCalls).hasValue(2);
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws IOException {
+        DiskCachingFormatterFacade facade = DiskCachingFormatterFacade.open(counting, "options", tempDir, 1024 * 1024);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> facade.formatSource("Foo", "oops"))
+                    .isInstanceOf(GoetheException.class)
+                    .hasMessage("Failed to format 'Foo'");
+        }
+        assertThat(formatCalls).hasValue(2);
+        assertThat(entries()).isEmpty();
+    }
+
+    @Test
+    public void testMissingEntriesAreReplaced() throws IOException {
+        DiskCachingFormatterFacade facade = DiskCachingFormatterFacade.open(counting, "options", tempDir, 1024 * 1024);
+        facade.formatSource("Foo", "class Foo {}");
+        for (Path entry : entries()) {
+            Files.delete(entry);
+        }
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(formatCalls).hasValue(2);
+        assertThat(entries()).hasSize(1);
+    }
+
+    @Test
+    public void testEvictsBySize() throws IOException {
+        long maxBytes = 16 * 1024;
+        DiskCachingFormatterFacade facade = DiskCachingFormatterFacade.open(counting, "options", tempDir, maxBytes);
+        for (int i = 0; i < 64; i++) {
+            facade.formatSource("Foo", "class Foo" + i + " {}" + " ".repeat(1024));
+        }
+        long totalBytes = 0;
+        for (Path entry : entries()) {
+            totalBytes += Files.size(entry);
+        }
+        assertThat(totalBytes).isLessThanOrEqualTo(maxBytes);
+        assertThat(entries()).isNotEmpty();
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().length() == 64)
+                    .collect(Collectors.toList());
+        }
+    }
+}
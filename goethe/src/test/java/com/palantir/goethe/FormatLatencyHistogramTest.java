@@ -0,0 +1,87 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class FormatLatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        FormatLatencyHistogram histogram = new FormatLatencyHistogram();
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.mean()).isEqualTo(Duration.ZERO);
+        assertThat(histogram.percentile(0.99)).isEqualTo(Duration.ZERO);
+        assertThat(histogram.hotspots(10)).isEmpty();
+    }
+
+    @Test
+    public void testPercentiles() {
+        FormatLatencyHistogram histogram = new FormatLatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.onFormat(event("com.palantir.foo.Foo" + millis, Duration.ofMillis(millis)));
+        }
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.max()).isEqualTo(Duration.ofMillis(100));
+        assertThat(histogram.percentile(0.5)).isBetween(Duration.ofMillis(50), Duration.ofNanos(56_250_000));
+        assertThat(histogram.percentile(0.99)).isBetween(Duration.ofMillis(99), Duration.ofMillis(100));
+        assertThat(histogram.percentile(1)).isEqualTo(Duration.ofMillis(100));
+        assertThat(histogram.mean()).isEqualTo(Duration.ofNanos(50_500_000));
+    }
+
+    @Test
+    public void testHotspots() {
+        FormatLatencyHistogram histogram = new FormatLatencyHistogram();
+        histogram.onFormat(event("com.palantir.foo.Cheap", Duration.ofMillis(1)));
+        histogram.onFormat(event("com.palantir.foo.Expensive", Duration.ofMillis(5)));
+        histogram.onFormat(event("com.palantir.foo.Frequent", Duration.ofMillis(2)));
+        histogram.onFormat(event("com.palantir.foo.Frequent", Duration.ofMillis(2)));
+        assertThat(histogram.hotspots(2))
+                .containsExactly(
+                        entry("com.palantir.foo.Expensive", Duration.ofMillis(5)),
+                        entry("com.palantir.foo.Frequent", Duration.ofMillis(4)));
+    }
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        long previousUpperBound = -1;
+        for (int index = 0; FormatLatencyHistogram.bucketUpperBound(index) != Long.MAX_VALUE; index++) {
+            long upperBound = FormatLatencyHistogram.bucketUpperBound(index);
+            assertThat(upperBound).isGreaterThan(previousUpperBound);
+            assertThat(FormatLatencyHistogram.bucketIndex(upperBound)).isEqualTo(index);
+            assertThat(FormatLatencyHistogram.bucketIndex(previousUpperBound + 1)).isEqualTo(index);
+            previousUpperBound = upperBound;
+        }
+        assertThat(FormatLatencyHistogram.bucketIndex(Long.MAX_VALUE)).isNotNegative();
+    }
+
+    private static FormatEvent event(String className, Duration wallTime) {
+        return new FormatEvent(
+                className,
+                "direct",
+                100,
+                100,
+                wallTime.toNanos(),
+                FormatEvent.Outcome.SUCCESS,
+                WorkerStats.UNKNOWN,
+                WorkerStats.UNKNOWN);
+    }
+}
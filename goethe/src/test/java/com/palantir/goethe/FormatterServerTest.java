@@ -0,0 +1,190 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FormatterServerTest {
+
+    private static final FormatterFacade UPPER_CASE = (className, unformattedSource) -> {
+        if (unformattedSource.toString().contains("oops")) {
+            throw new GoetheException("Failed to format '" + className + "'");
+        }
+        return unformattedSource.toString().toUpperCase();
+    };
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger launches = new AtomicInteger();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testStartsServerOnDemand() {
+        Path socket = tempDir.resolve("goethe.sock");
+        ServerFormatterFacade facade = facade(socket, UPPER_CASE, Duration.ofMinutes(1));
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(facade.formatSource("Bar", "class Bar {}")).isEqualTo("CLASS BAR {}");
+        assertThat(launches).hasValue(1);
+        assertThat(socket).exists();
+        assertThat(facade.isUnavailable()).isFalse();
+    }
+
+    @Test
+    public void testSharesServerBetweenClients() {
+        Path socket = tempDir.resolve("goethe.sock");
+        ServerFormatterFacade first = facade(socket, UPPER_CASE, Duration.ofMinutes(1));
+        ServerFormatterFacade second = facade(socket, UPPER_CASE, Duration.ofMinutes(1));
+        assertThat(first.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(second.formatSource("Bar", "class Bar {}")).isEqualTo("CLASS BAR {}");
+        assertThat(launches).hasValue(1);
+    }
+
+    @Test
+    public void testMultiplexesConcurrentRequests() throws Exception {
+        // Every request waits for the others, which only completes if they are formatted concurrently
+        int requests = 8;
+        CountDownLatch started = new CountDownLatch(requests);
+        FormatterFacade awaitingOthers = (className, unformattedSource) -> {
+            started.countDown();
+            try {
+                if (!started.await(10, TimeUnit.SECONDS)) {
+                    throw new GoetheException("Requests were formatted sequentially");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return UPPER_CASE.formatSource(className, unformattedSource);
+        };
+        ServerFormatterFacade facade = facade(tempDir.resolve("goethe.sock"), awaitingOthers, Duration.ofMinutes(1));
+        List<Future<String>> results = IntStream.range(0, requests)
+                .mapToObj(i -> executor.submit(() -> facade.formatSource("Foo" + i, "class Foo" + i + " {}")))
+                .collect(Collectors.toList());
+        for (int i = 0; i < requests; i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo("CLASS FOO" + i + " {}");
+        }
+        assertThat(launches).hasValue(1);
+    }
+
+    @Test
+    public void testReportsFormattingFailures() {
+        ServerFormatterFacade facade = facade(tempDir.resolve("goethe.sock"), UPPER_CASE, Duration.ofMinutes(1));
+        assertThatThrownBy(() -> facade.formatSource("Foo", "class oops {}"))
+                .isInstanceOf(GoetheException.class)
+                .hasMessage("Failed to format 'Foo'");
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(facade.isUnavailable()).isFalse();
+    }
+
+    @Test
+    public void testRestartsServerAfterIdleShutdown() throws InterruptedException {
+        Path socket = tempDir.resolve("goethe.sock");
+        ServerFormatterFacade facade = facade(socket, UPPER_CASE, Duration.ofMillis(100));
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        for (int attempt = 0; attempt < 100 && Files.exists(socket); attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(socket).as("Idle servers exit and delete their socket").doesNotExist();
+        assertThat(facade.formatSource("Bar", "class Bar {}")).isEqualTo("CLASS BAR {}");
+        assertThat(launches).hasValue(2);
+    }
+
+    @Test
+    public void testReplacesSocketOfCrashedServer() throws IOException {
+        Path socket = tempDir.resolve("goethe.sock");
+        try (ServerSocketChannel crashed = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            crashed.bind(UnixDomainSocketAddress.of(socket));
+        }
+        assertThat(socket).exists();
+        ServerFormatterFacade facade = facade(socket, UPPER_CASE, Duration.ofMinutes(1));
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("CLASS FOO {}");
+        assertThat(launches).hasValue(1);
+    }
+
+    @Test
+    public void testFallsBackWhenServerCannotStart() {
+        ServerFormatterFacade facade = new ServerFormatterFacade(
+                tempDir.resolve("goethe.sock"),
+                () -> {
+                    launches.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                },
+                () -> (className, unformattedSource) -> "fallback");
+        assertThat(facade.formatSource("Foo", "class Foo {}")).isEqualTo("fallback");
+        assertThat(facade.isUnavailable()).isTrue();
+        assertThat(facade.formatSource("Bar", "class Bar {}")).isEqualTo("fallback");
+        assertThat(launches).hasValue(3);
+    }
+
+    @Test
+    public void testSocketDependsOnOptions() throws IOException {
+        FormatterOptions withoutJavadoc = GoetheFormatter.builder().formatJavadoc(false).options();
+        assertThat(FormatterServer.socket(FormatterOptions.DEFAULT))
+                .isEqualTo(FormatterServer.socket(FormatterOptions.DEFAULT))
+                .isNotEqualTo(FormatterServer.socket(withoutJavadoc));
+    }
+
+    /** Creates a client whose launcher starts a server in this jvm. */
+    private ServerFormatterFacade facade(Path socket, FormatterFacade formatter, Duration idleTimeout) {
+        return new ServerFormatterFacade(
+                socket,
+                () -> {
+                    launches.incrementAndGet();
+                    FormatterServer server = new FormatterServer(socket, formatter, idleTimeout, executor);
+                    return CompletableFuture.runAsync(
+                            () -> {
+                                try {
+                                    server.run();
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            },
+                            executor);
+                },
+                () -> {
+                    throw new AssertionError("The server should be available");
+                });
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.TypeSpec;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FormatterWorkerPoolTest {
+
+    private static String source(int index) {
+        return JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo" + index)
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("int value = $L", index)
+                                        .build())
+                                .build())
+                .build()
+                .toString();
+    }
+
+    @Test
+    public void testReplacesDeadWorkers() {
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 100, Long.MAX_VALUE);
+        String expected = pool.format("com.palantir.foo.Foo0", source(0));
+        pool.killIdleWorkers();
+        assertThat(pool.format("com.palantir.foo.Foo0", source(0))).isEqualTo(expected);
+        assertThat(pool.idleWorkers()).isOne();
+    }
+
+    @Test
+    public void testDiscardsWorkersWhichExitWhileIdle() throws InterruptedException {
+        Set<Long> existingChildren =
+                ProcessHandle.current().children().map(ProcessHandle::pid).collect(Collectors.toSet());
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 100, Long.MAX_VALUE);
+        String expected = pool.format("com.palantir.foo.Foo0", source(0));
+        assertThat(pool.idleWorkers()).isOne();
+        ProcessHandle.current()
+                .children()
+                .filter(child -> !existingChildren.contains(child.pid()))
+                .forEach(ProcessHandle::destroyForcibly);
+        for (int attempt = 0; attempt < 100 && pool.idleWorkers() > 0; attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(pool.idleWorkers()).as("Exited workers are discarded without waiting for checkout").isZero();
+        assertThat(pool.format("com.palantir.foo.Foo0", source(0))).isEqualTo(expected);
+    }
+
+    @Test
+    public void testRecyclesWorkersAfterMaxFiles() {
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 2, Long.MAX_VALUE);
+        pool.format("com.palantir.foo.Foo0", source(0));
+        assertThat(pool.idleWorkers()).isOne();
+        pool.format("com.palantir.foo.Foo1", source(1));
+        assertThat(pool.idleWorkers()).as("worker should be recycled").isZero();
+        pool.format("com.palantir.foo.Foo2", source(2));
+        assertThat(pool.idleWorkers()).isOne();
+    }
+
+    @Test
+    public void testRecyclesWorkersAboveHeapWatermark() {
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 100, 1);
+        pool.format("com.palantir.foo.Foo0", source(0));
+        assertThat(pool.idleWorkers()).isZero();
+    }
+
+    @Test
+    public void testReplacesWorkersWithInsufficientHeap() {
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 100, Long.MAX_VALUE);
+        String expected = pool.format("com.palantir.foo.Foo0", source(0));
+        String large = source(1) + "// " + "a".repeat(600_000) + '\n';
+        pool.format("com.palantir.foo.Foo1", large);
+        assertThat(pool.idleWorkers()).isOne();
+        assertThat(pool.format("com.palantir.foo.Foo0", source(0)))
+                .as("Larger workers are reused for smaller sources")
+                .isEqualTo(expected);
+        assertThat(pool.idleWorkers()).isOne();
+    }
+
+    @Test
+    public void testKillsWorkersExceedingTimeout() {
+        FormatterWorkerPool pool = new FormatterWorkerPool(
+                FormatterOptions.DEFAULT,
+                WorkerJvmOptions.defaults(),
+                1,
+                100,
+                Long.MAX_VALUE,
+                Optional.of(Duration.ofMillis(1)));
+        // The first request includes worker startup, which takes far longer
+        assertThatThrownBy(() -> pool.format("com.palantir.foo.Foo0", source(0)))
+                .isInstanceOfSatisfying(
+                        GoetheException.class,
+                        exception -> assertThat(exception.isDeadlineExceeded()).isTrue());
+        assertThat(pool.idleWorkers()).isZero();
+    }
+
+    @Test
+    public void testFailuresDoNotDiscardWorkers() {
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 100, Long.MAX_VALUE);
+        assertThatThrownBy(() -> pool.format("com.palantir.foo.Foo", "class Foo { type oops name = bar; }"))
+                .isInstanceOf(GoetheException.class)
+                .hasMessageContaining("Failed to format 'com.palantir.foo.Foo'");
+        assertThat(pool.idleWorkers()).isOne();
+    }
+
+    @Test
+    public void testConcurrentFormattingIsBounded() throws Exception {
+        int maxWorkers = 2;
+        FormatterWorkerPool pool = new FormatterWorkerPool(maxWorkers, 100, Long.MAX_VALUE);
+        DirectFormatterFacade direct = new DirectFormatterFacade();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = IntStream.range(0, 16)
+                    .mapToObj(index ->
+                            executor.submit(() -> pool.format("com.palantir.foo.Foo" + index, source(index))))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get())
+                        .isEqualTo(direct.formatSource("com.palantir.foo.Foo" + i, source(i)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(pool.idleWorkers()).isBetween(1, maxWorkers);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.javapoet.CodeBlock;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.TypeSpec;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class FormatterWorkerTest {
+
+    private static JavaFile javaFile(String name, String statement) {
+        return JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder(name)
+                                .addStaticBlock(
+                                        CodeBlock.builder().addStatement(statement).build())
+                                .build())
+                .build();
+    }
+
+    @Test
+    public void testWorkerServesMultipleRequests() throws IOException {
+        DirectFormatterFacade direct = new DirectFormatterFacade();
+        try (FormatterWorker worker = FormatterWorker.start(FormatterOptions.DEFAULT, WorkerJvmOptions.defaults(), 0)) {
+            for (int i = 0; i < 5; i++) {
+                String source = javaFile("Foo" + i, "int value = " + i).toString();
+                assertThat(worker.format("com.palantir.foo.Foo" + i, source))
+                        .isEqualTo(direct.formatSource("com.palantir.foo.Foo" + i, source));
+            }
+            assertThat(worker.isAlive()).isTrue();
+        }
+    }
+
+    @Test
+    public void testWorkerSurvivesFormattingFailure() throws IOException {
+        try (FormatterWorker worker = FormatterWorker.start(FormatterOptions.DEFAULT, WorkerJvmOptions.defaults(), 0)) {
+            assertThatThrownBy(() -> worker.format(
+                            "com.palantir.foo.Foo",
+                            javaFile("Foo", "type oops name = bar").toString()))
+                    .isInstanceOf(GoetheException.class)
+                    .hasMessageContaining("Failed to format 'com.palantir.foo.Foo'")
+                    .hasMessageContaining("';' expected");
+            assertThat(worker.isAlive()).isTrue();
+            assertThat(worker.format(
+                            "com.palantir.foo.Bar",
+                            javaFile("Bar", "int value = 1").toString()))
+                    .contains("int value = 1;");
+        }
+    }
+
+    @Test
+    public void testVerboseStderrDoesNotBlockWorker() throws IOException {
+        WorkerJvmOptions verbose = WorkerJvmOptions.builder()
+                .addJvmArgs("-Xlog:class+load=info:stderr")
+                .build();
+        try (FormatterWorker worker = FormatterWorker.start(FormatterOptions.DEFAULT, verbose, 0)) {
+            for (int i = 0; i < 5; i++) {
+                String source = javaFile("Foo" + i, "int value = " + i).toString();
+                assertThat(worker.format("com.palantir.foo.Foo" + i, source)).contains("int value = " + i + ";");
+            }
+            assertThat(worker.stderr()).contains("earlier bytes discarded");
+            assertThat(worker.stderr().length()).isLessThan(WorkerStderr.DEFAULT_MAX_BYTES + 100);
+        }
+    }
+}
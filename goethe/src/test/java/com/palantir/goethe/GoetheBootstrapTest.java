@@ -22,6 +22,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.palantir.javapoet.CodeBlock;
 import com.palantir.javapoet.JavaFile;
 import com.palantir.javapoet.TypeSpec;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Path;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.io.TempDir;
@@ -113,4 +115,40 @@ class GoetheBootstrapTest {
                         + " */\n"
                         + "class Foo {}\n");
     }
+
+    @ParameterizedTest
+    @MethodSource("formatterFacades")
+    public void testFormattingToWriter(FormatterFacade formatter) throws IOException {
+        JavaFile javaFile = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("$T.out.println($S)", System.class, "ü".repeat(90))
+                                        .build())
+                                .build())
+                .build();
+        StringWriter writer = new StringWriter();
+        formatter.formatSource("com.palantir.foo.Foo", new StringBuilder(javaFile.toString()), writer);
+        assertThat(writer.toString())
+                .as("Expected identical output to the string variant")
+                .isEqualTo(format(formatter, javaFile));
+    }
+
+    @ParameterizedTest
+    @MethodSource("formatterFacades")
+    public void testFailureWritesNothing(FormatterFacade formatter) {
+        JavaFile javaFile = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("type oops name = bar")
+                                        .build())
+                                .build())
+                .build();
+        StringWriter writer = new StringWriter();
+        assertThatThrownBy(() -> formatter.formatSource("com.palantir.foo.Foo", javaFile.toString(), writer))
+                .isInstanceOf(GoetheException.class)
+                .hasMessageContaining("Failed to format 'com.palantir.foo.Foo'");
+        assertThat(writer.toString()).isEmpty();
+    }
 }
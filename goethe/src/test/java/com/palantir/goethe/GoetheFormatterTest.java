@@ -0,0 +1,135 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.javapoet.FieldSpec;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.TypeSpec;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GoetheFormatterTest {
+
+    private static final JavaFile FILE = JavaFile.builder(
+                    "com.palantir.foo",
+                    TypeSpec.classBuilder("Foo")
+                            .addJavadoc("$1L $1L", "a".repeat(90))
+                            .addField(FieldSpec.builder(int.class, "value").build())
+                            .build())
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testStyle(boolean inProcess) {
+        GoetheFormatter google = GoetheFormatter.builder()
+                .inProcess(inProcess)
+                .style(GoetheFormatter.Style.GOOGLE)
+                .build();
+        assertThat(google.formatAsString(FILE)).contains("\n  int value;\n");
+        assertThat(Goethe.formatAsString(FILE)).contains("\n    int value;\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testJavadocFormattingDisabled(boolean inProcess) {
+        GoetheFormatter formatter = GoetheFormatter.builder()
+                .inProcess(inProcess)
+                .formatJavadoc(false)
+                .build();
+        String longWord = "a".repeat(90);
+        assertThat(formatter.formatAsString(FILE)).contains(" * " + longWord + " " + longWord + "\n");
+        assertThat(Goethe.formatAsString(FILE)).contains(" * " + longWord + "\n * " + longWord + "\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testImportsOnly(boolean inProcess) {
+        GoetheFormatter formatter = GoetheFormatter.builder()
+                .inProcess(inProcess)
+                .mode(GoetheFormatter.Mode.IMPORTS_ONLY)
+                .build();
+        String source = "package com.palantir.foo;\n\n"
+                + "import java.util.Map;\n"
+                + "import java.util.List;\n\n"
+                + "class Foo {\n"
+                + "  List<String> values;   \n"
+                + "  int    value;\n"
+                + "}\n";
+        assertThat(formatter.formatSource("com.palantir.foo.Foo", source))
+                .doesNotContain("java.util.Map")
+                .contains("import java.util.List;\n")
+                .as("Layout is left to the generator")
+                .contains("\n  List<String> values;\n  int    value;\n}\n");
+    }
+
+    @Test
+    public void testOptionsFingerprint() {
+        assertThat(FormatterOptions.DEFAULT.fingerprint())
+                .as("Changing the default fingerprint invalidates existing disk caches")
+                .isEqualTo("style=PALANTIR,formatJavadoc=true");
+        FormatterOptions options = GoetheFormatter.builder()
+                .style(GoetheFormatter.Style.AOSP)
+                .formatJavadoc(false)
+                .mode(GoetheFormatter.Mode.IMPORTS_ONLY)
+                .options();
+        assertThat(FormatterOptions.parse(options.fingerprint()).fingerprint())
+                .isEqualTo(options.fingerprint())
+                .isNotEqualTo(FormatterOptions.DEFAULT.fingerprint());
+    }
+
+    @Test
+    public void testIndependentCaches() {
+        GoetheFormatter cached = GoetheFormatter.builder().cacheMaxBytes(1024 * 1024).build();
+        GoetheFormatter uncached = GoetheFormatter.builder().build();
+        cached.formatAsString(FILE);
+        cached.formatAsString(FILE);
+        uncached.formatAsString(FILE);
+        assertThat(cached.cacheStats().hitCount()).isOne();
+        assertThat(uncached.cacheStats().hitCount()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testPrewarm(boolean inProcess) throws Exception {
+        GoetheFormatter formatter = GoetheFormatter.builder()
+                .inProcess(inProcess)
+                .cacheMaxBytes(1024 * 1024)
+                .build();
+        List<FormatEvent> events = new CopyOnWriteArrayList<>();
+        formatter.addListener(events::add);
+        CompletableFuture<Void> warm = formatter.prewarm();
+        assertThat(formatter.prewarm()).as("Only the first call has an effect").isSameAs(warm);
+        warm.get(1, TimeUnit.MINUTES);
+        assertThat(events).as("Warming up isn't reported to listeners").isEmpty();
+        assertThat(formatter.cacheStats().entryCount()).as("Warming up isn't cached").isZero();
+        assertThat(formatter.formatAsString(FILE)).contains("\n    int value;\n");
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    public void testPrewarmWhenBuilt() throws Exception {
+        GoetheFormatter formatter = GoetheFormatter.builder().prewarm(true).build();
+        assertThat(formatter.prewarm().get(1, TimeUnit.MINUTES)).isNull();
+    }
+}
@@ -24,9 +24,22 @@ import static org.mockito.Mockito.when;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.TypeSpec;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.annotation.processing.Filer;
 import javax.lang.model.element.Element;
 import javax.tools.JavaFileObject;
@@ -132,4 +145,152 @@ class GoetheSquareTest {
                 .as("Expected contents on disk to be formatted")
                 .hasContent(Goethe.formatAsString(javaFile));
     }
+
+    @Test
+    public void testFormatAll() {
+        JavaFile valid = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("$T.out.println($S)", System.class, "a".repeat(90))
+                                        .build())
+                                .build())
+                .build();
+        JavaFile invalid = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Bar")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("type oops name = bar")
+                                        .build())
+                                .build())
+                .build();
+        List<FormatResult> results = Goethe.formatAllSquare(List.of(invalid, valid));
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).className()).isEqualTo("com.palantir.foo.Bar");
+        assertThat(results.get(0).isSuccess()).isFalse();
+        assertThat(results.get(0).failure())
+                .hasValueSatisfying(failure -> assertThat(failure).hasMessageContaining("';' expected"));
+        assertThatThrownBy(results.get(0)::formatted).isInstanceOf(GoetheException.class);
+        assertThat(results.get(1).className()).isEqualTo("com.palantir.foo.Foo");
+        assertThat(results.get(1).formatted())
+                .as("Expected identical output to 'formatAsString'")
+                .isEqualTo(Goethe.formatAsString(valid));
+    }
+
+    @Test
+    public void testFormatAllPreservesOrder() {
+        List<JavaFile> files = IntStream.range(0, 20)
+                .mapToObj(index -> JavaFile.builder(
+                                "com.palantir.foo", TypeSpec.classBuilder("Foo" + index).build())
+                        .build())
+                .collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertThat(Goethe.formatAllSquare(files, executor))
+                    .extracting(FormatResult::className)
+                    .containsExactlyElementsOf(IntStream.range(0, 20)
+                            .mapToObj(index -> "com.palantir.foo.Foo" + index)
+                            .collect(Collectors.toList()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFormattingToDirectoryIfChanged() throws IOException {
+        JavaFile javaFile = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("$T.out.println($S)", System.class, "a".repeat(90))
+                                        .build())
+                                .build())
+                .build();
+        EmitResult first = Goethe.formatAndEmitIfChanged(javaFile, tempDir);
+        assertThat(first.isWritten()).isTrue();
+        assertThat(first.path()).hasContent(Goethe.formatAsString(javaFile));
+
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(first.path(), lastModified);
+        EmitResult second = Goethe.formatAndEmitIfChanged(javaFile, tempDir);
+        assertThat(second.isWritten()).as("Expected identical content to be left alone").isFalse();
+        assertThat(second.path()).isEqualTo(first.path());
+        assertThat(Files.getLastModifiedTime(second.path())).isEqualTo(lastModified);
+
+        Files.writeString(first.path(), "modified");
+        EmitResult third = Goethe.formatAndEmitIfChanged(javaFile, tempDir);
+        assertThat(third.isWritten()).isTrue();
+        assertThat(third.path()).hasContent(Goethe.formatAsString(javaFile));
+    }
+
+    @Test
+    public void testFormattingToStreams() {
+        JavaFile javaFile = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("$T.out.println($S)", System.class, "ü".repeat(90))
+                                        .build())
+                                .build())
+                .build();
+        String expected = Goethe.formatAsString(javaFile);
+
+        StringWriter writer = new StringWriter();
+        Goethe.formatTo(javaFile, writer);
+        assertThat(writer.toString()).isEqualTo(expected);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Goethe.formatTo(javaFile, stream);
+        assertThat(stream.toString(StandardCharsets.UTF_8)).isEqualTo(expected);
+
+        ByteArrayOutputStream channelStream = new ByteArrayOutputStream();
+        Goethe.formatTo(javaFile, Channels.newChannel(channelStream));
+        assertThat(channelStream.toString(StandardCharsets.UTF_8)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testFormatAsync() {
+        JavaFile valid = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Foo")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("$T.out.println($S)", System.class, "a".repeat(90))
+                                        .build())
+                                .build())
+                .build();
+        JavaFile invalid = JavaFile.builder(
+                        "com.palantir.foo",
+                        TypeSpec.classBuilder("Bar")
+                                .addStaticBlock(CodeBlock.builder()
+                                        .addStatement("type oops name = bar")
+                                        .build())
+                                .build())
+                .build();
+        assertThat(Goethe.formatAsync(valid))
+                .succeedsWithin(Duration.ofMinutes(1))
+                .isEqualTo(Goethe.formatAsString(valid));
+        assertThat(Goethe.formatAsync(invalid))
+                .failsWithin(Duration.ofMinutes(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(GoetheException.class);
+    }
+
+    @Test
+    public void testFormatAndEmitAsync() {
+        List<JavaFile> files = IntStream.range(0, 20)
+                .mapToObj(index -> JavaFile.builder(
+                                "com.palantir.foo", TypeSpec.classBuilder("Foo" + index).build())
+                        .build())
+                .collect(Collectors.toList());
+        List<CompletableFuture<Path>> futures = files.stream()
+                .map(file -> Goethe.formatAndEmitAsync(file, tempDir))
+                .collect(Collectors.toList());
+        for (int i = 0; i < files.size(); i++) {
+            assertThat(futures.get(i))
+                    .succeedsWithin(Duration.ofMinutes(1))
+                    .isEqualTo(tempDir.resolve("com/palantir/foo/Foo" + i + ".java"));
+            assertThat(tempDir.resolve("com/palantir/foo/Foo" + i + ".java"))
+                    .hasContent(Goethe.formatAsString(files.get(i)));
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.javapoet.FieldSpec;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.TypeName;
+import com.palantir.javapoet.TypeSpec;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.lang.model.element.Modifier;
+import org.junit.jupiter.api.Test;
+
+class IncrementalFormatterFacadeTest {
+
+    private final DirectFormatterFacade direct = new DirectFormatterFacade();
+    private final AtomicLong formattedChars = new AtomicLong();
+    private final FormatterFacade counting = (className, unformattedSource) -> {
+        formattedChars.addAndGet(unformattedSource.length());
+        return direct.formatSource(className, unformattedSource);
+    };
+
+    @Test
+    public void testFormatsChangedMembersOnly() {
+        IncrementalFormatterFacade facade = new IncrementalFormatterFacade(counting, 1024 * 1024, true);
+        String first = source(40, -1, "first");
+        assertThat(facade.formatSource("com.palantir.Big", first)).isEqualTo(direct.formatSource("Big", first));
+        assertThat(facade.incrementalFormats()).isZero();
+
+        String second = source(40, 7, "second");
+        formattedChars.set(0);
+        assertThat(facade.formatSource("com.palantir.Big", second)).isEqualTo(direct.formatSource("Big", second));
+        assertThat(facade.incrementalFormats()).isOne();
+        assertThat(facade.verificationFailures()).isZero();
+        // The incremental unit and the full format used for verification
+        assertThat(formattedChars.get()).isLessThan(second.length() + second.length() / 4);
+    }
+
+    @Test
+    public void testMatchesFullFormatAcrossGenerations() {
+        IncrementalFormatterFacade facade = new IncrementalFormatterFacade(counting, 1024 * 1024, true);
+        for (int generation = 0; generation < 10; generation++) {
+            String source = source(30, (generation * 7) % 30, "value" + generation);
+            assertThat(facade.formatSource("com.palantir.Big", source)).isEqualTo(direct.formatSource("Big", source));
+        }
+        assertThat(facade.incrementalFormats()).isEqualTo(9);
+        assertThat(facade.verificationFailures()).isZero();
+    }
+
+    @Test
+    public void testFormatsInFullWhenTheDeclarationChanges() {
+        IncrementalFormatterFacade facade = new IncrementalFormatterFacade(counting, 1024 * 1024, true);
+        facade.formatSource("com.palantir.Big", source(20, -1, "first"));
+        String renamed = source(20, 3, "second").replace("class Big", "class Big implements java.io.Serializable");
+        assertThat(facade.formatSource("com.palantir.Big", renamed)).isEqualTo(direct.formatSource("Big", renamed));
+        assertThat(facade.incrementalFormats()).isZero();
+    }
+
+    @Test
+    public void testClassesAreTrackedSeparately() {
+        IncrementalFormatterFacade facade = new IncrementalFormatterFacade(counting, 1024 * 1024, true);
+        facade.formatSource("com.palantir.Big", source(20, -1, "first"));
+        facade.formatSource("com.palantir.Other", source(20, 3, "second"));
+        assertThat(facade.incrementalFormats()).isZero();
+    }
+
+    /** Generates a class with {@code members} methods, the method at {@code changed} returning {@code value}. */
+    private static String source(int members, int changed, String value) {
+        TypeSpec.Builder type = TypeSpec.classBuilder("Big")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(TypeName.INT, "count", Modifier.PRIVATE)
+                        .build());
+        for (int i = 0; i < members; i++) {
+            type.addMethod(MethodSpec.methodBuilder("method" + i)
+                    .addJavadoc("Returns a value for $L.", i)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(String.class)
+                    .addStatement(
+                            "return $T.join($S, $S, $S)",
+                            String.class,
+                            ", ",
+                            i == changed ? value : "unchanged",
+                            "a fairly long argument which forces the formatter to wrap the call")
+                    .build());
+            if (i == changed) {
+                type.addField(FieldSpec.builder(String.class, "field" + i, Modifier.PRIVATE)
+                        .initializer("$S", value)
+                        .build());
+            }
+        }
+        return JavaFile.builder("com.palantir", type.build()).build().toString();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class InstrumentedFormatterFacadeTest {
+
+    private static final String SOURCE = "package com.palantir.foo;\nclass Foo {}\n";
+
+    private final List<FormatEvent> events = new CopyOnWriteArrayList<>();
+    private final List<FormatListener> listeners = new CopyOnWriteArrayList<>(List.of(events::add));
+
+    @Test
+    public void testReportsSuccess() throws IOException {
+        FormatterFacade facade = new InstrumentedFormatterFacade(
+                (className, unformattedSource) -> unformattedSource + "// formatted\n", "direct", listeners);
+        String formatted = facade.formatSource("com.palantir.foo.Foo", SOURCE);
+        StringWriter writer = new StringWriter();
+        facade.formatSource("com.palantir.foo.Foo", SOURCE, writer);
+        assertThat(events).hasSize(2).allSatisfy(event -> {
+            assertThat(event.className()).isEqualTo("com.palantir.foo.Foo");
+            assertThat(event.facade()).isEqualTo("direct");
+            assertThat(event.inputChars()).isEqualTo(SOURCE.length());
+            assertThat(event.outputChars()).isEqualTo(formatted.length());
+            assertThat(event.outcome()).isEqualTo(FormatEvent.Outcome.SUCCESS);
+            assertThat(event.wallTimeNanos()).isNotNegative();
+            assertThat(event.childCpuTime()).isEmpty();
+            assertThat(event.childPeakRssBytes()).isEmpty();
+        });
+    }
+
+    @Test
+    public void testReportsFailure() {
+        FormatterFacade facade = new InstrumentedFormatterFacade(
+                (className, unformattedSource) -> {
+                    throw new GoetheException("Failed to format '" + className + "'");
+                },
+                "direct",
+                listeners);
+        assertThatThrownBy(() -> facade.formatSource("com.palantir.foo.Foo", SOURCE))
+                .isInstanceOf(GoetheException.class);
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.outcome()).isEqualTo(FormatEvent.Outcome.FAILURE);
+            assertThat(event.outputChars()).isZero();
+        });
+    }
+
+    @Test
+    public void testDeadlineExceededUsesUnformattedSource() throws IOException {
+        FormatterFacade facade = new InstrumentedFormatterFacade(
+                (className, unformattedSource) -> {
+                    throw GoetheException.deadlineExceeded(className, Duration.ofSeconds(1));
+                },
+                "direct",
+                listeners);
+        assertThat(facade.formatSource("com.palantir.foo.Foo", SOURCE)).isEqualTo(SOURCE);
+        StringWriter writer = new StringWriter();
+        facade.formatSource("com.palantir.foo.Foo", SOURCE, writer);
+        assertThat(writer).hasToString(SOURCE);
+        assertThat(events).hasSize(2).allSatisfy(event -> {
+            assertThat(event.outcome()).isEqualTo(FormatEvent.Outcome.DEADLINE_EXCEEDED);
+            assertThat(event.outputChars()).isEqualTo(SOURCE.length());
+        });
+    }
+
+    @Test
+    public void testListenerFailuresAreIgnored() {
+        listeners.add(0, event -> {
+            throw new IllegalStateException("broken listener");
+        });
+        FormatterFacade facade =
+                new InstrumentedFormatterFacade((className, unformattedSource) -> "formatted", "direct", listeners);
+        assertThat(facade.formatSource("com.palantir.foo.Foo", SOURCE)).isEqualTo("formatted");
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    public void testReportsChildProcessStats() {
+        FormatterFacade facade =
+                new InstrumentedFormatterFacade(new BootstrappingFormatterFacade(), "bootstrapping", listeners);
+        facade.formatSource("com.palantir.foo.Foo", SOURCE);
+        facade.formatSource("com.palantir.foo.Foo", SOURCE);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).facade()).isEqualTo("bootstrapping");
+        assertThat(events.get(0).childCpuTime())
+                .as("The first call is charged for jvm startup")
+                .hasValueSatisfying(cpuTime -> assertThat(cpuTime).isPositive());
+        assertThat(events.get(1).childCpuTime()).isPresent();
+        if (System.getProperty("os.name").startsWith("Linux")) {
+            assertThat(events.get(1).childPeakRssBytes().orElse(0)).isPositive();
+        }
+    }
+}
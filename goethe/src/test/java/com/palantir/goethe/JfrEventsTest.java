@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.TypeSpec;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrEventsTest {
+
+    private static final String SOURCE = "package com.palantir.foo;\nclass Foo {}\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFormatAndEmitEvents() throws IOException {
+        JavaFile javaFile = JavaFile.builder(
+                        "com.palantir.foo", TypeSpec.classBuilder("Foo").build())
+                .build();
+        List<RecordedEvent> events = record(() -> Goethe.formatAndEmit(javaFile, tempDir));
+
+        assertThat(events("com.palantir.goethe.Format", events)).singleElement().satisfies(event -> {
+            assertThat(event.getString("className")).isEqualTo("com.palantir.foo.Foo");
+            assertThat(event.getLong("inputChars")).isPositive();
+            assertThat(event.getLong("outputChars")).isPositive();
+            assertThat(event.getBoolean("success")).isTrue();
+        });
+        assertThat(events("com.palantir.goethe.Emit", events)).singleElement().satisfies(event -> {
+            assertThat(event.getString("className")).isEqualTo("com.palantir.foo.Foo");
+            assertThat(event.getString("destination")).endsWith("Foo.java");
+            assertThat(event.getBoolean("written")).isTrue();
+        });
+    }
+
+    @Test
+    public void testWorkerLifecycleEvents() throws IOException {
+        FormatterWorkerPool pool = new FormatterWorkerPool(1, 1, Long.MAX_VALUE);
+        FormatterFacade facade = new InstrumentedFormatterFacade(
+                new BootstrappingFormatterFacade(pool), FormatterFacadeFactory.BOOTSTRAPPING, List.of());
+        List<RecordedEvent> events = record(() -> facade.formatSource("com.palantir.foo.Foo", SOURCE));
+
+        assertThat(events("com.palantir.goethe.Format", events))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getString("facade")).isEqualTo("bootstrapping"));
+        List<RecordedEvent> spawns = events("com.palantir.goethe.WorkerSpawn", events);
+        assertThat(spawns).hasSize(1);
+        RecordedEvent spawn = spawns.get(0);
+        assertThat(events("com.palantir.goethe.WorkerExit", events))
+                .as("The worker is recycled after a single file")
+                .singleElement()
+                .satisfies(exit -> {
+                    assertThat(exit.getLong("pid")).isEqualTo(spawn.getLong("pid"));
+                    assertThat(exit.getInt("filesFormatted")).isOne();
+                    assertThat(exit.getBoolean("unexpected")).isFalse();
+                });
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.palantir.goethe.Format");
+            recording.enable("com.palantir.goethe.Emit");
+            recording.enable("com.palantir.goethe.WorkerSpawn");
+            recording.enable("com.palantir.goethe.WorkerExit");
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> events(String name, List<RecordedEvent> events) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RenderBuffersTest {
+
+    @Test
+    public void testReusesBuffers() {
+        // Other tests leave buffers in the pool, take them so that the next buffer acquired is the one released here
+        List<StringBuilder> idle = new ArrayList<>();
+        while (RenderBuffers.idleBuffers() > 0) {
+            idle.add(RenderBuffers.acquire());
+        }
+        StringBuilder buffer = RenderBuffers.acquire();
+        buffer.append("class Foo {}");
+        RenderBuffers.release(buffer);
+        assertThat(RenderBuffers.idleBuffers()).isOne();
+
+        StringBuilder reused = RenderBuffers.acquire();
+        assertThat(reused).isSameAs(buffer).isEmpty();
+        RenderBuffers.release(reused);
+        idle.forEach(RenderBuffers::release);
+    }
+
+    @Test
+    public void testDropsLargeBuffers() {
+        StringBuilder buffer = RenderBuffers.acquire();
+        buffer.append("a".repeat(RenderBuffers.MAX_RETAINED_CHARS + 1));
+        int idle = RenderBuffers.idleBuffers();
+        RenderBuffers.release(buffer);
+        assertThat(RenderBuffers.idleBuffers()).isEqualTo(idle);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SourceFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWritesMissingFile() throws IOException {
+        Path path = tempDir.resolve("Foo.java");
+        assertThat(SourceFiles.writeIfChanged(path, "class Foo {}")).isTrue();
+        assertThat(path).hasContent("class Foo {}");
+    }
+
+    @Test
+    public void testSkipsIdenticalContent() throws IOException {
+        Path path = tempDir.resolve("Foo.java");
+        Files.writeString(path, "class Foo {}");
+        assertThat(SourceFiles.writeIfChanged(path, "class Foo {}")).isFalse();
+    }
+
+    @Test
+    public void testWritesSameSizeDifferentContent() throws IOException {
+        Path path = tempDir.resolve("Foo.java");
+        Files.writeString(path, "class Bar {}");
+        assertThat(SourceFiles.writeIfChanged(path, "class Foo {}")).isTrue();
+        assertThat(path).hasContent("class Foo {}");
+    }
+
+    @Test
+    public void testLargeFiles() throws IOException {
+        Path path = tempDir.resolve("Foo.java");
+        String content = "class Foo {}\n".repeat(100_000);
+        Files.writeString(path, content);
+        assertThat(SourceFiles.writeIfChanged(path, content)).isFalse();
+        String modified = content.substring(0, content.length() - 2) + "]\n";
+        assertThat(SourceFiles.writeIfChanged(path, modified)).isTrue();
+        assertThat(path).hasContent(modified);
+    }
+
+    @Test
+    public void testReadsUtf8() throws IOException {
+        Path path = tempDir.resolve("Foo.java");
+        Files.writeString(path, "class Foo { String s = \"\u00e9\"; }");
+        assertThat(SourceFiles.read(path).toString()).isEqualTo("class Foo { String s = \"\u00e9\"; }");
+    }
+
+    @Test
+    public void testReplacesAtomically() throws IOException {
+        Path path = tempDir.resolve("Foo.java");
+        Files.writeString(path, "class Bar {}");
+        SourceFiles.writeAtomically(path, "class Foo {}");
+        assertThat(path).hasContent("class Foo {}");
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.javapoet.ClassName;
+import com.palantir.javapoet.FieldSpec;
+import com.palantir.javapoet.JavaFile;
+import com.palantir.javapoet.MethodSpec;
+import com.palantir.javapoet.TypeName;
+import com.palantir.javapoet.TypeSpec;
+import java.util.concurrent.Executors;
+import javax.lang.model.element.Modifier;
+import org.junit.jupiter.api.Test;
+
+class SplittingFormatterFacadeTest {
+
+    private final DirectFormatterFacade direct = new DirectFormatterFacade();
+    private final SplittingFormatterFacade splitting =
+            new SplittingFormatterFacade(direct, 1024, 4, Executors.newCachedThreadPool());
+
+    @Test
+    public void testSplitOutputMatchesWholeSource() {
+        String source = source(TypeSpec.classBuilder("Big"), 800);
+        assertThat(splitting.formatSource("com.palantir.Big", source)).isEqualTo(direct.formatSource("Big", source));
+        assertThat(splitting.splitFormats()).isOne();
+    }
+
+    @Test
+    public void testInterfacesAreSplit() {
+        String source = source(TypeSpec.interfaceBuilder("Visitor"), 800, true);
+        assertThat(splitting.formatSource("com.palantir.Visitor", source))
+                .isEqualTo(direct.formatSource("Visitor", source));
+        assertThat(splitting.splitFormats()).isOne();
+    }
+
+    @Test
+    public void testSmallSourcesAreFormattedWhole() {
+        String source = source(TypeSpec.classBuilder("Small"), 2);
+        assertThat(splitting.formatSource("com.palantir.Small", source))
+                .isEqualTo(direct.formatSource("Small", source));
+        assertThat(splitting.splitFormats()).isZero();
+    }
+
+    @Test
+    public void testEnumConstantsAreFormattedWhole() {
+        TypeSpec.Builder type = TypeSpec.enumBuilder("Constants");
+        for (int i = 0; i < 3000; i++) {
+            type.addEnumConstant("CONSTANT_" + i);
+        }
+        String source = source(type, 2);
+        assertThat(splitting.formatSource("com.palantir.Constants", source))
+                .isEqualTo(direct.formatSource("Constants", source));
+        assertThat(splitting.splitFormats()).isZero();
+    }
+
+    @Test
+    public void testFailuresAreReportedForTheWholeSource() {
+        String source = source(TypeSpec.classBuilder("Big"), 800).replace("return 700;", "return 700");
+        assertThatThrownBy(() -> splitting.formatSource("com.palantir.Big", source))
+                .isInstanceOf(GoetheException.class)
+                .hasMessageContaining("return 700");
+        assertThat(splitting.splitFormats()).isZero();
+    }
+
+    /** Adds {@code members} methods, and a field for every ten methods unless the type is an interface. */
+    private static String source(TypeSpec.Builder type, int members) {
+        return source(type, members, false);
+    }
+
+    private static String source(TypeSpec.Builder type, int members, boolean isInterface) {
+        for (int i = 0; i < members; i++) {
+            if (i % 10 == 0 && !isInterface) {
+                type.addField(FieldSpec.builder(TypeName.INT, "field" + i, Modifier.PRIVATE)
+                        .build());
+            }
+            MethodSpec.Builder method = MethodSpec.methodBuilder("visit" + i)
+                    .addJavadoc("Visits the $L node.", i)
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(ClassName.get("com.palantir", "Node" + i), "node")
+                    .returns(TypeName.INT);
+            if (isInterface) {
+                method.addModifiers(Modifier.ABSTRACT);
+            } else {
+                method.addStatement("return $L", i);
+            }
+            type.addMethod(method.build());
+        }
+        return JavaFile.builder("com.palantir", type.build()).build().toString();
+    }
+}
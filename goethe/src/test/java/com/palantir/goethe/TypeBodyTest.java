@@ -0,0 +1,54 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TypeBodyTest {
+
+    @Test
+    public void testSplitsMembers() {
+        String source = "package foo;\n\nclass Foo {\n  int a = '}';\n\n  Runnable b = new Runnable() {\n"
+                + "    public void run() {}\n  };\n\n  /** } */\n  void c() {\n    \"{\".length();\n  }\n}\n";
+        TypeBody body = TypeBody.parse(source).orElseThrow();
+        assertThat(body.header()).isEqualTo("package foo;\n\nclass Foo {\n");
+        assertThat(body.members())
+                .containsExactly(
+                        "  int a = '}';\n",
+                        "\n  Runnable b = new Runnable() {\n    public void run() {}\n  };\n",
+                        "\n  /** } */\n  void c() {\n    \"{\".length();\n  }\n");
+        assertThat(body.footer()).isEqualTo("}\n");
+    }
+
+    @Test
+    public void testEnumConstantsArePartOfTheHeader() {
+        TypeBody body = TypeBody.parse("enum Foo {\n  A {\n    void a() {}\n  },\n  B;\n\n  void b() {}\n}\n")
+                .orElseThrow();
+        assertThat(body.header()).isEqualTo("enum Foo {\n  A {\n    void a() {}\n  },\n  B;\n");
+        assertThat(body.members()).containsExactly("\n  void b() {}\n");
+    }
+
+    @Test
+    public void testAmbiguousSourcesAreNotSplit() {
+        assertThat(TypeBody.parse("class Foo {\n  int a; int b;\n}\n")).isEmpty();
+        assertThat(TypeBody.parse("class Foo {\n}\nclass Bar {\n}\n")).isEmpty();
+        assertThat(TypeBody.parse("enum Foo {\n  A, B\n}\n")).isEmpty();
+        assertThat(TypeBody.parse("class Foo {")).isEmpty();
+    }
+}
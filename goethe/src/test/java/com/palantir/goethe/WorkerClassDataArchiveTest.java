@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkerClassDataArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void afterEach() {
+        System.clearProperty(WorkerClassDataArchive.ENABLED_PROPERTY);
+        System.clearProperty(WorkerClassDataArchive.DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    public void testDisabled() {
+        System.setProperty(WorkerClassDataArchive.ENABLED_PROPERTY, "false");
+        assertThat(WorkerClassDataArchive.archivePath()).isEmpty();
+        assertThat(WorkerClassDataArchive.jvmArgs()).isEmpty();
+    }
+
+    @Test
+    public void testArchiveLocation() {
+        System.setProperty(WorkerClassDataArchive.DIRECTORY_PROPERTY, tempDir.toString());
+        if (Files.isRegularFile(Paths.get(FormatterWorker.getClasspath()))) {
+            assertThat(WorkerClassDataArchive.archivePath())
+                    .hasValueSatisfying(archive -> assertThat(archive.getParent()).isEqualTo(tempDir))
+                    .as("Archive is stable for a given jdk and jar")
+                    .isEqualTo(WorkerClassDataArchive.archivePath());
+        } else {
+            assertThat(WorkerClassDataArchive.archivePath())
+                    .as("Classes loaded from directories cannot be archived")
+                    .isEmpty();
+        }
+    }
+}
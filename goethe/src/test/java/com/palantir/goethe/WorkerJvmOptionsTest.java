@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class WorkerJvmOptionsTest {
+
+    @AfterEach
+    void afterEach() {
+        System.clearProperty(WorkerJvmOptions.JVM_ARGS_PROPERTY);
+        System.clearProperty(WorkerJvmOptions.TUNING_PROPERTY);
+    }
+
+    @Test
+    public void testDefaults() {
+        assertThat(WorkerJvmOptions.defaults().jvmArgs(1_000))
+                .contains("-XX:+UseSerialGC", "-XX:CICompilerCount=2", "-Xmx256m");
+    }
+
+    @Test
+    public void testHeapScalesWithInput() {
+        WorkerJvmOptions options = WorkerJvmOptions.defaults();
+        assertThat(options.heapBytes(0)).isEqualTo(WorkerJvmOptions.MIN_HEAP_BYTES);
+        assertThat(options.heapBytes(1_000_000)).isEqualTo(512L * 1024 * 1024);
+        assertThat(options.jvmArgs(1_000_000)).contains("-Xmx512m");
+        assertThat(options.heapBytes(Integer.MAX_VALUE)).isEqualTo(WorkerJvmOptions.MAX_HEAP_BYTES);
+    }
+
+    @Test
+    public void testFixedHeap() {
+        WorkerJvmOptions options =
+                WorkerJvmOptions.builder().maxHeapBytes(64L * 1024 * 1024).build();
+        assertThat(options.heapBytes(1_000_000)).isEqualTo(64L * 1024 * 1024);
+        assertThat(options.jvmArgs(1_000_000)).contains("-Xmx64m");
+    }
+
+    @Test
+    public void testServerArguments() {
+        assertThat(WorkerJvmOptions.defaults().serverJvmArgs())
+                .as("Servers format concurrently for a long time, so keep the default collector and jit")
+                .contains("-Xmx4096m")
+                .doesNotContain("-XX:+UseSerialGC", "-XX:CICompilerCount=2");
+        assertThat(WorkerJvmOptions.builder()
+                        .maxHeapBytes(64L * 1024 * 1024)
+                        .build()
+                        .serverJvmArgs())
+                .contains("-Xmx64m");
+        assertThat(WorkerJvmOptions.builder().addJvmArgs("-Xmx2g").build().serverJvmArgs())
+                .noneMatch(argument -> argument.startsWith("-Xmx") && !argument.equals("-Xmx2g"));
+    }
+
+    @Test
+    public void testAdditionalArgumentsOverrideDefaults() {
+        WorkerJvmOptions options = WorkerJvmOptions.builder()
+                .addJvmArgs("-XX:+UseParallelGC", "-Xmx2g")
+                .build();
+        assertThat(options.jvmArgs(1_000))
+                .as("Conflicting collectors prevent the jvm from starting")
+                .doesNotContain("-XX:+UseSerialGC")
+                .endsWith("-XX:+UseParallelGC", "-Xmx2g")
+                .noneMatch(argument -> argument.startsWith("-Xmx") && !argument.equals("-Xmx2g"));
+        assertThat(options.heapBytes(1_000)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testUntuned() {
+        assertThat(WorkerJvmOptions.builder().tuned(false).build().jvmArgs(1_000))
+                .isEmpty();
+    }
+
+    @Test
+    public void testSystemProperties() {
+        assertThat(WorkerJvmOptions.fromSystemProperties()).isSameAs(WorkerJvmOptions.defaults());
+        System.setProperty(WorkerJvmOptions.JVM_ARGS_PROPERTY, " -Xss2m  -Dfoo=bar ");
+        assertThat(WorkerJvmOptions.fromSystemProperties().jvmArgs(1_000))
+                .contains("-XX:+UseSerialGC")
+                .endsWith("-Xss2m", "-Dfoo=bar");
+        System.setProperty(WorkerJvmOptions.TUNING_PROPERTY, "false");
+        assertThat(WorkerJvmOptions.fromSystemProperties().jvmArgs(1_000))
+                .containsExactly("-Xss2m", "-Dfoo=bar");
+    }
+}
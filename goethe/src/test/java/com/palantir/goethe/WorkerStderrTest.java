@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.goethe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class WorkerStderrTest {
+
+    @Test
+    public void testRetainsEverythingBelowLimit() throws InterruptedException {
+        WorkerStderr stderr = drained(new ByteArrayInputStream(bytes("crashed")), 1024);
+        assertThat(stderr.tail()).isEqualTo("crashed");
+        assertThat(stderr.totalBytes()).isEqualTo(7);
+    }
+
+    @Test
+    public void testRetainsMostRecentOutput() throws InterruptedException {
+        byte[] output = bytes("x".repeat(1_000_000) + "the end");
+        WorkerStderr stderr = drained(new ByteArrayInputStream(output), 16);
+        assertThat(stderr.tail()).isEqualTo("[999991 earlier bytes discarded]\nxxxxxxxxxthe end");
+        assertThat(stderr.totalBytes()).isEqualTo(output.length);
+    }
+
+    @Test
+    public void testRetainsMostRecentOutputAcrossWrites() throws Exception {
+        PipedOutputStream output = new PipedOutputStream();
+        WorkerStderr stderr = new WorkerStderr(new PipedInputStream(output), "test", 10);
+        for (int i = 0; i < 7; i++) {
+            output.write(bytes("ab" + i));
+            output.flush();
+        }
+        output.close();
+        stderr.awaitDrained(Duration.ofSeconds(10));
+        assertThat(stderr.tail()).isEqualTo("[11 earlier bytes discarded]\n3ab4ab5ab6");
+    }
+
+    private static WorkerStderr drained(ByteArrayInputStream input, int maxBytes) throws InterruptedException {
+        WorkerStderr stderr = new WorkerStderr(input, "test", maxBytes);
+        stderr.awaitDrained(Duration.ofSeconds(10));
+        return stderr;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}